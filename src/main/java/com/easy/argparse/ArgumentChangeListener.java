@@ -0,0 +1,19 @@
+package com.easy.argparse;
+
+import java.util.Set;
+
+/**
+ * Listener notified by {@link IncrementalArgumentParser} when an update changes any value of the data class
+ *
+ * @author himanshu_shekhar
+ */
+public interface ArgumentChangeListener {
+
+    /**
+     *
+     * @param data The instance of data class with the updated values
+     * @param changedVariableNames Names of the variables in data class whose values changed, e.g. {@code minute} in usage expression
+     * {@code -m minute [-s seconds]}
+     */
+    void argumentsChanged(Object data, Set<String> changedVariableNames);
+}
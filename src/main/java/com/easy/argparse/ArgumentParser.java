@@ -1,7 +1,20 @@
 package com.easy.argparse;
 
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -25,13 +38,20 @@ import org.slf4j.LoggerFactory;
  *         A variable with name same as specified in usage expression must be present in the data class, along with corresponding setter method
  *    </li>
  *    <li>
+ *         A variable of a nested object is named by its path, e.g. {@code --db.host db.host} sets {@code host} of the object in variable
+ *         {@code db} of data class. A nested object which is null is created by its default constructor and set by its setter method
+ *    </li>
+ *    <li>
  *         The data type of variable corresponding to name in usage expression must be either of below: <br>
  *         <ol>
  *            <li>String</li>
  *            <li>Primitive data type ({@code boolean, byte, char, short, int, long, float, double})</li>
  *            <li>Wrapper to primitive data type ({@code Boolean, Byte, Character, Short, Integer, Long, Float, Double})</li>
  *            <li>An array of any of the above types</li>
- *            <li>Enum class</li>
+ *            <li>Enum class, whose constant can be specified ignoring case or by a prefix matching only one constant</li>
+ *            <li>{@code EnumSet} of an enum class, {@code List} or {@code Set} of {@code Integer} or {@code Long}, specified like an array.
+ *            Integers and longs are kept in primitive arrays backing the collection ({@link IntList}, {@link IntSet}, {@link LongList} or
+ *            {@link LongSet})</li>
  *         </ol>
  *    </li>
  *    <li>
@@ -48,6 +68,23 @@ import org.slf4j.LoggerFactory;
  *         All options except those corresponding to boolean type except a value to be specified in the command line arguments
  *    </li>
  *    <li>
+ *         A value can be attached to the option, like {@code --min=20} or {@code -m20}, and boolean options with single character names can be
+ *         clustered, like {@code -vq} for {@code -v -q}. A negative number, like {@code -5}, is taken as a value unless it is an option itself
+ *    </li>
+ *    <li>
+ *         Values can be constrained by annotating the variable in data class with {@link Range}, {@link Length} or {@link Matches}, e.g.
+ *         {@code @Range(min = 1, max = 65535) int port}. A value violating its constraint fails the parse while it is being converted
+ *    </li>
+ *    <li>
+ *         A value not available in command line arguments can be taken from an environment variable or system property named by annotating
+ *         the variable in data class with {@link Fallback}, or else from a {@link ConfigFileSource}, which also satisfies a mandatory option
+ *    </li>
+ *    <li>
+ *         Operands can be accepted after the options by ending the usage expression with a variable name followed by {@code ...}, e.g.
+ *         {@code -m minute files...}. The variable must be a {@code List<String>}, which is set to a view over the command line arguments
+ *         starting at the first argument that is neither an option nor its value, or right after {@code --}
+ *    </li>
+ *    <li>
  *         If anything is wrong, e.g. usage expression is not valid etc., then an IllegalArgumentException with appropriate message will be thrown
  *    </li>
  * </ul>
@@ -57,9 +94,28 @@ import org.slf4j.LoggerFactory;
 public class ArgumentParser {
     private static final Logger logger = LoggerFactory.getLogger(ArgumentParser.class);
     
+    /**
+     * Number of parsers kept by the cache used by {@link #cached(String, Class, String)}
+     */
+    public static final int SHARED_CACHE_SIZE = 256;
+    
+    private static final ArgumentParserCache sharedCache = new ArgumentParserCache(SHARED_CACHE_SIZE);
+    
+    private final String usageExpression;
     private final Class<?> dataClass;
     private final UsageTokenManager usageTokenManager;
     private final FieldValueManager fieldValueManager;
+    private final FallbackResolver fallbackResolver;
+    private final boolean immutableDataClass;
+    
+    private final ThreadLocal<Object> pooledDataHolderObject;
+    private final ConcurrentMap<Class<?>, LazyViewPlan> lazyViewPlanMap;
+    
+    private volatile boolean compiled;
+    private volatile MemberInvoker dataClassInstantiator;
+    private volatile Map<UsageToken, Object> defaultValueMap;
+    private volatile ParsedResultCache resultCache;
+    private volatile UsageToken[] compiledUsageTokens;
    
     /**
      * 
@@ -82,9 +138,105 @@ public class ArgumentParser {
      * @param arrayDelimiter The delimiter text which will be used to determine the array specified in command line argument
      */
     public ArgumentParser(String usageExpression, Class<?> dataHolderClass, String arrayDelimiter){
+        this.usageExpression = usageExpression;
         this.dataClass = dataHolderClass;
         this.usageTokenManager = new UsageTokenManager(usageExpression, dataHolderClass);
         this.fieldValueManager = new FieldValueManager(dataHolderClass, usageTokenManager, arrayDelimiter);
+        this.fallbackResolver = new FallbackResolver();
+        this.immutableDataClass = dataHolderClass.isAnnotationPresent(Immutable.class);
+        this.pooledDataHolderObject = new ThreadLocal<Object>();
+        this.lazyViewPlanMap = new ConcurrentHashMap<Class<?>, LazyViewPlan>();
+    }
+    
+    /**
+     * Same as {@link #cached(String, Class, String)} with {@code ,} as array delimiter
+     * 
+     * @param usageExpression As described above
+     * @param dataHolderClass As described above
+     * @return A compiled parser shared by all the callers with same arguments
+     */
+    public static ArgumentParser cached(String usageExpression, Class<?> dataHolderClass){
+        return cached(usageExpression, dataHolderClass, ",");
+    }
+    
+    /**
+     * Get a compiled parser from a cache shared by the whole process, instead of creating and compiling a new one. Useful if a parser would
+     * otherwise be created for every request. Since the parser is shared, its settings should not be changed
+     * 
+     * @param usageExpression As described above
+     * @param dataHolderClass As described above
+     * @param arrayDelimiter As described above
+     * @return A compiled parser shared by all the callers with same arguments
+     * @throws IllegalArgumentException If usage expression or data class is not valid
+     * @see ArgumentParserCache
+     */
+    public static ArgumentParser cached(String usageExpression, Class<?> dataHolderClass, String arrayDelimiter){
+        return sharedCache.get(usageExpression, dataHolderClass, arrayDelimiter);
+    }
+    
+    /**
+     * 
+     * @return The cache used by {@link #cached(String, Class, String)}, e.g. to obtain its statistics
+     */
+    public static ArgumentParserCache getSharedCache(){
+        return sharedCache;
+    }
+    
+    /**
+     * 
+     * @param threshold The minimum length (number of characters) of an array value in command line arguments which is decoded in parallel.
+     * Shorter values are decoded serially. Default is {@link FieldValueManager#DEFAULT_PARALLEL_DECODING_THRESHOLD}
+     * @throws IllegalArgumentException If given threshold is not positive
+     */
+    public void setParallelArrayThreshold(int threshold){
+        fieldValueManager.setParallelDecodingThreshold(threshold);
+    }
+    
+    /**
+     * 
+     * @param valueCache The cache to keep converted values in, so that the same text is not converted again by later calls to
+     * {@link #parse(String[])}. Specify null to disable caching, which is the default
+     */
+    public void setValueCache(ConvertedValueCache valueCache){
+        fieldValueManager.setValueCache(valueCache);
+    }
+    
+    /**
+     * 
+     * @param environmentSnapshot The snapshot to resolve {@link Fallback} values from. Default is {@link EnvironmentSnapshot#getDefault()}
+     */
+    public void setEnvironmentSnapshot(EnvironmentSnapshot environmentSnapshot){
+        fallbackResolver.setEnvironmentSnapshot(environmentSnapshot);
+    }
+    
+    /**
+     * 
+     * @param configFile The file to take values from for the options available neither in command line arguments nor as {@link Fallback}
+     * values. Each option is looked up by {@link Fallback#key()}, or else by its data variable name. Specify null for none, which is the
+     * default
+     */
+    public void setConfigFile(ConfigFileSource configFile){
+        fallbackResolver.setConfigFile(configFile);
+    }
+    
+    /**
+     * 
+     * @param resultCache The cache to keep parsed instances of data class in, so that the same arguments given to later calls to
+     * {@link #parse(String[])} are not parsed again. Specify null to disable caching, which is the default
+     */
+    public void setResultCache(ParsedResultCache resultCache){
+        this.resultCache = resultCache;
+    }
+    
+    /*
+    Settings which are not part of usage expression, e.g. to carry these over to a reloaded parser
+    */
+    void copySettings(ArgumentParser argumentParser){
+        fieldValueManager.setParallelDecodingThreshold(argumentParser.fieldValueManager.getParallelDecodingThreshold());
+        fieldValueManager.setValueCache(argumentParser.fieldValueManager.getValueCache());
+        fallbackResolver.setEnvironmentSnapshot(argumentParser.fallbackResolver.getEnvironmentSnapshot());
+        fallbackResolver.setConfigFile(argumentParser.fallbackResolver.getConfigFile());
+        resultCache = argumentParser.resultCache;
     }
     
     /**
@@ -92,27 +244,382 @@ public class ArgumentParser {
      * @param args The values representing command line arguments (or any String array for that sake)
      * @return A new instance of dataHolderClass specified in constructor with values available in {@code args} set appropriately
      */
-    public synchronized Object parse(String[] args){
-        initializeAndValidate();
+    public Object parse(String[] args){
+        Object event = FlightRecorderEvents.beginParse();
+        try{
+            ParsedResultCache cache = resultCache;
+            Object dataHolderObject = cache == null ? getDataHolderObject(getAvailableValues(args)) : getCachedDataHolderObject(args, cache);
+            FlightRecorderEvents.commitParse(event, args.length, null);
+            return dataHolderObject;
+        }catch(RuntimeException e){
+            FlightRecorderEvents.commitParse(event, args.length, e);
+            throw e;
+        }
+    }
+    
+    /*
+    Arguments are copied before these are parsed and kept, so that neither the key nor a view over operands changes with the caller's array
+    */
+    private Object getCachedDataHolderObject(String[] args, ParsedResultCache cache){
+        compile();
+        
+        Object fallbackState = fallbackResolver.getState();
+        Object dataHolderObject = cache.get(this, args, fallbackState);
+        if(dataHolderObject == null){
+            String[] argsCopy = args.clone();
+            dataHolderObject = getDataHolderObject(getAvailableValues(argsCopy));
+            cache.put(this, argsCopy, fallbackState, dataHolderObject);
+        }
+        return immutableDataClass ? dataHolderObject : copyDataHolderObject(dataHolderObject);
+    }
+    
+    /*
+    Values are already converted, so the copy only binds these again
+    */
+    private Object copyDataHolderObject(Object dataHolderObject){
+        Object copy = getDataClassInstance();
+        for (UsageToken usageToken : compiledUsageTokens) {
+            invokeSetterMethod(usageToken, copy, copyMutableValue(getFieldValue(usageToken, dataHolderObject)));
+        }
+        return copy;
+    }
+    
+    /*
+    Arrays and EnumSet are the mutable values conversion creates, so these are copied before a value is shared by more than one instance.
+    Other collections created by conversion are read-only
+    */
+    static Object copyMutableValue(Object value){
+        if(value != null && value.getClass().isArray()){
+            int length = Array.getLength(value);
+            Object arrayCopy = Array.newInstance(value.getClass().getComponentType(), length);
+            System.arraycopy(value, 0, arrayCopy, 0, length);
+            return arrayCopy;
+        }else if(value instanceof EnumSet){
+            return ((EnumSet<?>) value).clone();
+        }
+        return value;
+    }
+    
+    /**
+     * Same as {@link #parse(String[])}, but the values are set in given instance of data class instead of a new one. Variables of all the
+     * options in usage expression which are not available in {@code args} are reset to their default values, i.e. the values in an instance
+     * created by the default constructor, so nothing is left over from an earlier parse into the same instance. A default value which is an
+     * array or {@code EnumSet} is copied for every target, any other mutable default value, e.g. a list created by the default constructor, is
+     * shared by the targets and must not be modified
+     * 
+     * @param args The values representing command line arguments
+     * @param target The instance of dataHolderClass specified in constructor to set the values in
+     * @return The given target
+     * @throws IllegalArgumentException If target is not an instance of dataHolderClass or arguments could not be parsed. Values might have
+     * been reset or set in target already, if the arguments could not be converted
+     */
+    public Object parseInto(String[] args, Object target){
+        if(!dataClass.isInstance(target)){
+            throw new IllegalArgumentException("Target is not an instance of " + dataClass.getCanonicalName() + " ("
+                    + (target == null ? null : target.getClass().getCanonicalName()) + ")");
+        }
+        Object event = FlightRecorderEvents.beginParse();
+        try{
+            bindInto(getAvailableValues(args), target);
+            FlightRecorderEvents.commitParse(event, args.length, null);
+            return target;
+        }catch(RuntimeException e){
+            FlightRecorderEvents.commitParse(event, args.length, e);
+            throw e;
+        }
+    }
+    
+    /*
+    Compiled tokens are walked instead of entries of default value map, so that reusing target allocates no iterator for every parse. A
+    variable under a null nested object is not reset, since creating the object just to set the default value would change the target
+    */
+    private void bindInto(AvailableValues availableValues, Object target){
+        Map<UsageToken, Object> defaultValues = getDefaultValueMap();
+        for (UsageToken usageToken : compiledUsageTokens) {
+            if(availableValues.getValue(usageToken) == null && isBindingPathPresent(usageToken, target)){
+                invokeSetterMethod(usageToken, target, copyMutableValue(defaultValues.get(usageToken)));
+            }
+        }
+        for (UsageToken usageToken : availableValues.getUsageTokens()) {
+            invokeSetterMethod(usageToken, target, getArgValueObject(usageToken, availableValues));
+        }
+    }
+    
+    /**
+     * Same as {@link #parseInto(String[], Object)}, into an instance of data class kept for the calling thread. The same instance is returned
+     * by every call from a thread, so no instance is created once a thread has parsed, but the values returned are valid only until the next
+     * call from the same thread and must not be handed over to other threads
+     * 
+     * @param args The values representing command line arguments
+     * @return The instance of dataHolderClass specified in constructor kept for the calling thread, with values available in {@code args} set
+     */
+    public Object parsePooled(String[] args){
+        Object target = pooledDataHolderObject.get();
+        if(target == null){
+            target = getDataClassInstance();
+            pooledDataHolderObject.set(target);
+        }
         
-        fieldValueManager.updateAvailableValues(args);
+        return parseInto(args, target);
+    }
+    
+    /**
+     * Same as {@link #parse(String[])}, but the values are converted only when read. Instead of an instance of data class, an implementation
+     * of given interface is returned whose method {@code getMinute()}, {@code isMinute()} or {@code minute()} returns the value of data
+     * variable {@code minute}, converted when the method is first called and kept for later calls. So a large array or text which is never
+     * read is never converted. The options are still checked while parsing, e.g. for mandatory options, but not the values <br>
+     * The returned view is thread-safe
+     * 
+     * @param <T> Type of the interface describing the options
+     * @param args The values representing command line arguments
+     * @param optionsInterface The interface describing the options. Each of its methods must return the type of the corresponding variable
+     * in data class, and a variable of an option not available in {@code args} returns its default value
+     * @return An implementation of given interface, whose methods throw IllegalArgumentException if the value could not be converted
+     * @throws IllegalArgumentException If any method of the interface does not match a variable, or arguments could not be parsed
+     */
+    public <T> T parseLazily(String[] args, Class<T> optionsInterface){
+        Object event = FlightRecorderEvents.beginParse();
+        try{
+            LazyViewPlan lazyViewPlan = getLazyViewPlan(optionsInterface);
+            LazyValueHandler lazyValueHandler = new LazyValueHandler(this, lazyViewPlan, getAvailableValues(args));
+            T lazyView = optionsInterface.cast(Proxy.newProxyInstance(optionsInterface.getClassLoader(), new Class<?>[]{optionsInterface},
+                    lazyValueHandler));
+            FlightRecorderEvents.commitParse(event, args.length, null);
+            return lazyView;
+        }catch(RuntimeException e){
+            FlightRecorderEvents.commitParse(event, args.length, e);
+            throw e;
+        }
+    }
+    
+    /*
+    Methods of an interface are matched to usage tokens once, a race only matches these more than once
+    */
+    private LazyViewPlan getLazyViewPlan(Class<?> optionsInterface){
+        LazyViewPlan lazyViewPlan = lazyViewPlanMap.get(optionsInterface);
+        if(lazyViewPlan == null){
+            lazyViewPlan = new LazyViewPlan(optionsInterface, dataClass, getUsageTokens());
+            lazyViewPlanMap.putIfAbsent(optionsInterface, lazyViewPlan);
+        }
+        return lazyViewPlan;
+    }
+    
+    Object getDefaultValue(UsageToken usageToken){
+        return copyMutableValue(getDefaultValueMap().get(usageToken));
+    }
+    
+    /*
+    Default values are read once from an instance created by the default constructor, a race only reads these more than once
+    */
+    private Map<UsageToken, Object> getDefaultValueMap(){
+        Map<UsageToken, Object> defaultValues = defaultValueMap;
+        if(defaultValues == null){
+            Object defaultDataHolderObject = getDataClassInstance();
+            defaultValues = new HashMap<UsageToken, Object>();
+            for (UsageToken usageToken : usageTokenManager.getUsageTokens()) {
+                defaultValues.put(usageToken, getFieldValue(usageToken, defaultDataHolderObject));
+            }
+            defaultValueMap = defaultValues;
+        }
+        return defaultValues;
+    }
+    
+    /**
+     * Same as {@link #parse(String[])}, but the arguments which are not recognized are passed through instead of failing the parse. These are
+     * the options which are not in usage expression, the arguments which are neither an option nor its value and, from {@code --} on, the
+     * arguments after the options. If usage expression accepts operands, these are taken as operands instead, as usual. <br>
+     * Since the value of an unknown option cannot be told apart from other arguments, it is passed through as well, right after the option
+     * 
+     * @param args The values representing command line arguments
+     * @return A new instance of dataHolderClass specified in constructor with values available in {@code args} set appropriately, along with
+     * a view over the arguments which were not recognized
+     */
+    public ParseResult parsePassingThrough(String[] args){
+        Object event = FlightRecorderEvents.beginParse();
+        try{
+            AvailableValues availableValues = getAvailableValues(args, true);
+            ParseResult parseResult = new ParseResult(getDataHolderObject(availableValues), availableValues.getUnrecognizedArguments(args));
+            FlightRecorderEvents.commitParse(event, args.length, null);
+            return parseResult;
+        }catch(RuntimeException e){
+            FlightRecorderEvents.commitParse(event, args.length, e);
+            throw e;
+        }
+    }
+    
+    /**
+     * Create a projection which extracts only the values of given options from command line arguments, without converting them or parsing
+     * anything else
+     * 
+     * @param dataVariableNames Data variable names of the options to extract, e.g. {@code minute} in usage expression
+     * {@code -m minute [-s seconds]}
+     * @return The projection, which can be kept and used for any number of arguments
+     * @throws IllegalArgumentException If usage expression has no option with any of given data variable names
+     */
+    public ArgumentProjection projection(String... dataVariableNames){
+        List<UsageToken> allUsageTokens = getUsageTokens();
+        UsageToken[] projectedUsageTokens = new UsageToken[dataVariableNames.length];
+        for (int index = 0; index < dataVariableNames.length; index++) {
+            for (UsageToken usageToken : allUsageTokens) {
+                if(!usageToken.isOperand() && usageToken.getDataVariableName().equals(dataVariableNames[index])){
+                    projectedUsageTokens[index] = usageToken;
+                }
+            }
+            if(projectedUsageTokens[index] == null){
+                throw new IllegalArgumentException("No option with variable (" + dataVariableNames[index] + ") in usage expression ("
+                        + usageExpression + ")");
+            }
+        }
+        return new ArgumentProjection(fieldValueManager, projectedUsageTokens);
+    }
+    
+    /*
+    Values of arguments, not yet converted, for parsers which bind these in their own way
+    */
+    AvailableValues getAvailableValues(String[] args){
+        return getAvailableValues(args, false);
+    }
+    
+    private AvailableValues getAvailableValues(String[] args, boolean passThrough){
+        compile();
         
-        if(usageTokenManager.isMissingMandatoryOption(fieldValueManager.getAvailableUsageTokens())){
+        AvailableValues availableValues = fieldValueManager.getAvailableValues(args, passThrough);
+        fallbackResolver.apply(availableValues);
+        checkMandatoryOptions(availableValues);
+        return availableValues;
+    }
+    
+    /**
+     * Same as {@link #parse(String[])} with arguments encoded in default character set of the platform
+     * 
+     * @param channel The channel to read NUL ({@code \0}) delimited arguments from
+     * @return A new instance of dataHolderClass specified in constructor with values available in {@code channel} set appropriately
+     * @throws IOException If the arguments could not be read from the channel
+     * @see #parse(ReadableByteChannel, Charset)
+     */
+    public Object parse(ReadableByteChannel channel) throws IOException{
+        return parse(channel, Charset.defaultCharset());
+    }
+    
+    /**
+     * Parse the arguments delimited by NUL ({@code \0}) as read from the channel, e.g. the output of {@code find -print0} piped to standard
+     * input. The arguments are read through a fixed size buffer and processed one after another, so all of these are never held in memory
+     * together. Operands, if any, are collected though
+     * 
+     * @param channel The channel to read NUL ({@code \0}) delimited arguments from. It is read until end of stream but not closed
+     * @param charset The character set in which arguments are encoded
+     * @return A new instance of dataHolderClass specified in constructor with values available in {@code channel} set appropriately
+     * @throws IOException If the arguments could not be read from the channel
+     */
+    public Object parse(ReadableByteChannel channel, Charset charset) throws IOException{
+        /*
+        Number of arguments is known only as these are read, so the event records as many as were read till the parse succeeded or failed
+        */
+        Object event = FlightRecorderEvents.beginParse();
+        NulDelimitedArgumentReader reader = new NulDelimitedArgumentReader(channel, charset);
+        try{
+            compile();
+            
+            AvailableValues availableValues = fieldValueManager.getAvailableValues(reader);
+            fallbackResolver.apply(availableValues);
+            checkMandatoryOptions(availableValues);
+            Object dataHolderObject = getDataHolderObject(availableValues);
+            FlightRecorderEvents.commitParse(event, reader.getIndex() + 1, null);
+            return dataHolderObject;
+        }catch(RuntimeException e){
+            FlightRecorderEvents.commitParse(event, reader.getIndex() + 1, e);
+            throw e;
+        }catch(IOException e){
+            FlightRecorderEvents.commitParse(event, reader.getIndex() + 1, e);
+            throw e;
+        }
+    }
+    
+    /**
+     * Initialize and validate the usage tokens for the usage expression, unless already done. This is done only once, by the first parse if not
+     * invoked explicitly. Afterwards nothing is modified, so parses need no locking
+     * 
+     * @throws IllegalArgumentException If usage expression or data class is not valid
+     */
+    public void compile(){
+        if(!compiled){
+            compileOnce();
+        }
+    }
+    
+    private synchronized void compileOnce(){
+        if(!compiled){
+            Object event = FlightRecorderEvents.beginCompile();
+            initializeAndValidate();
+            List<UsageToken> usageTokens = usageTokenManager.getUsageTokens();
+            compiledUsageTokens = usageTokens.toArray(new UsageToken[usageTokens.size()]);
+            compiled = true;
+            if(event != null){
+                FlightRecorderEvents.commitCompile(event, usageExpression.length(), usageTokenManager.getUsageTokens().size());
+            }
+        }
+    }
+    
+    private void checkMandatoryOptions(AvailableValues availableValues){
+        if(usageTokenManager.isMissingMandatoryOption(availableValues.getUsageTokens())){
             throw new IllegalArgumentException("Missing mandatory option from the arguments");
         }
+    }
+    
+    private Object getDataHolderObject(AvailableValues availableValues){
         Object dataHolderObject = getDataClassInstance();
         
-        for (UsageToken usageToken : fieldValueManager.getAvailableUsageTokens()) {
-            invokeSetterMethod(usageToken, dataHolderObject);
+        for (UsageToken usageToken : availableValues.getUsageTokens()) {
+            invokeSetterMethod(usageToken, dataHolderObject, getArgValueObject(usageToken, availableValues));
         }
 
         return dataHolderObject;
     }
     
-    private Object getDataClassInstance(){
+    Object getArgValueObject(UsageToken usageToken, AvailableValues availableValues){
+        return fieldValueManager.getArgValueObject(usageToken, availableValues);
+    }
+    
+    /*
+    Value of the field in given instance, e.g. the default value in an instance created by the default constructor
+    */
+    Object getFieldValue(UsageToken usageToken, Object dataClassInstance){
+        try {
+            return usageTokenManager.getBindingPath(usageToken).getValue(dataClassInstance);
+        } catch (IllegalAccessException e) {
+            logger.warn("Got exception while accessing field of data class: {}", e);
+            throw new IllegalArgumentException("Cannot access " + dataClass.getCanonicalName() + "." + usageToken.getDataVariableName()
+                    + " (" + e.getMessage() + ")");
+        }
+    }
+    
+    private boolean isBindingPathPresent(UsageToken usageToken, Object dataClassInstance){
+        try {
+            return usageTokenManager.getBindingPath(usageToken).isPathPresent(dataClassInstance);
+        } catch (IllegalAccessException e) {
+            logger.warn("Got exception while accessing field of data class: {}", e);
+            throw new IllegalArgumentException("Cannot access " + dataClass.getCanonicalName() + "." + usageToken.getDataVariableName()
+                    + " (" + e.getMessage() + ")");
+        }
+    }
+    
+    Field getMappedField(UsageToken usageToken){
+        return usageToken.getMappedField(dataClass);
+    }
+    
+    List<UsageToken> getUsageTokens(){
+        compile();
+        
+        return usageTokenManager.getUsageTokens();
+    }
+    
+    Object getDataClassInstance(){
         Object dataHolderObject;
         try {
-            dataHolderObject = dataClass.newInstance();
+            dataHolderObject = getDataClassInstantiator().newInstance();
+        } catch (InvocationTargetException e) {
+            logger.warn("Got exception from constructor of data class: {}", e);
+            throw new IllegalArgumentException("Cannot create instance of " + dataClass.getCanonicalName() + " (" + e.getCause() + ")");
         } catch (InstantiationException e) {
             logger.warn("Got exception while creating instance of data class: {}", e);
             throw new IllegalArgumentException("Cannot create instance of " + dataClass.getCanonicalName() + " (" + e.getMessage() + ")");
@@ -124,13 +631,40 @@ public class ArgumentParser {
         return dataHolderObject;
     }
     
-    private void invokeSetterMethod(UsageToken usageToken, Object dataClassInstance){
-        Method setterMethod = usageTokenManager.getSetterMethod(usageToken);
+    /*
+    The constructor is looked up once, instead of by the deprecated Class.newInstance() for every parse
+    */
+    private MemberInvoker getDataClassInstantiator(){
+        MemberInvoker instantiator = dataClassInstantiator;
+        if(instantiator == null){
+            try {
+                Constructor<?> constructor = dataClass.getDeclaredConstructor();
+                if(!constructor.isAccessible()){
+                    constructor.setAccessible(true);
+                }
+                instantiator = MemberInvoker.forConstructor(constructor);
+            } catch (NoSuchMethodException e) {
+                logger.warn("Got exception while looking for default constructor of data class: {}", e);
+                throw new IllegalArgumentException("Cannot find default constructor of " + dataClass.getCanonicalName() + " (" 
+                        + e.getMessage() + ")");
+            }
+            dataClassInstantiator = instantiator;
+        }
+        return instantiator;
+    }
+    
+    void invokeSetterMethod(UsageToken usageToken, Object dataClassInstance, Object value){
+        BindingPath bindingPath = usageTokenManager.getBindingPath(usageToken);
+        Method setterMethod = bindingPath.getSetterMethod();
         
         logger.trace("Invoking setter method: {}", setterMethod.getName());
         
         try {
-            setterMethod.invoke(dataClassInstance, fieldValueManager.getArgValueObject(usageToken));
+            bindingPath.bind(dataClassInstance, value);
+        } catch (InstantiationException e) {
+            logger.warn("Got exception while creating nested object of data class: {}", e);
+            throw new IllegalArgumentException("Cannot create nested object for " + usageToken.getDataVariableName() + " in "
+                    + dataClass.getCanonicalName() + " (" + e.getMessage() + ")");
         } catch (InvocationTargetException e) {
             logger.warn("Got exception while invoking setter method: {}", e);
             throw new IllegalArgumentException("Cannot invoke method " + dataClass.getCanonicalName() + "." + setterMethod.getName()
@@ -157,5 +691,7 @@ public class ArgumentParser {
         }
         
         usageTokenManager.validateVariableNames();
+        fieldValueManager.initialize();
+        fallbackResolver.initialize(dataClass, usageTokenManager.getUsageTokens());
     }
 }
@@ -0,0 +1,289 @@
+package com.easy.argparse;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This thread-safe class keeps compiled {@link ArgumentParser} instances keyed by usage expression, data class and array delimiter, so that
+ * code creating a parser for every request does not compile the same usage expression again. At most the specified number of parsers are
+ * kept, the least recently used one being evicted first <br>
+ * Since a parser refers to its data class, a parser whose data class is loaded by another class loader than this cache (e.g. of a plugin)
+ * is kept alive by its data class rather than by the cache, through {@code java.lang.ClassValue}. The cache refers to such a parser and its
+ * data class weakly, so it does not keep that class loader alive: the parser is kept as long as its data class is loaded, and its entry is
+ * removed once the class loader is garbage collected. On a JVM older than Java 7, which has no {@code ClassValue}, such parsers are kept until
+ * evicted like any other. Parsers of data classes loaded by the class loader of this cache, or by any of its parents, are kept until evicted,
+ * as these classes cannot be unloaded before the cache anyway <br>
+ * The parsers returned are shared, so settings changed on any one (like {@link ArgumentParser#setValueCache(ConvertedValueCache)}) are
+ * seen by all of its users
+ *
+ * @author himanshu_shekhar
+ */
+public class ArgumentParserCache {
+    private static final Logger logger = LoggerFactory.getLogger(ArgumentParserCache.class);
+
+    private final int maximumSize;
+    private final Map<PlanKey, ParserHolder> parserMap;
+    private final ReferenceQueue<Class<?>> clearedDataClasses;
+    private final AtomicLong hitCount;
+    private final AtomicLong missCount;
+    private final AtomicLong evictionCount;
+
+    /**
+     *
+     * @param maximumSize The maximum number of parsers to keep
+     * @throws IllegalArgumentException If maximum size is not positive
+     */
+    public ArgumentParserCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive (" + maximumSize + ")");
+        }
+        this.maximumSize = maximumSize;
+        this.parserMap = new LinkedHashMap<PlanKey, ParserHolder>(16, 0.75f, true);
+        this.clearedDataClasses = new ReferenceQueue<Class<?>>();
+        this.hitCount = new AtomicLong();
+        this.missCount = new AtomicLong();
+        this.evictionCount = new AtomicLong();
+    }
+
+    /**
+     *
+     * @param usageExpression The expression representing format in which command line arguments will be specified
+     * @param dataHolderClass The class which will contain the values specified in command line arguments
+     * @param arrayDelimiter The delimiter text which will be used to determine the array specified in command line argument
+     * @return A compiled parser, either kept earlier or created now
+     * @throws IllegalArgumentException If usage expression or data class is not valid
+     * @see ArgumentParser#ArgumentParser(String, Class, String)
+     */
+    public ArgumentParser get(String usageExpression, Class<?> dataHolderClass, String arrayDelimiter) {
+        PlanKey key = new PlanKey(usageExpression, dataHolderClass, arrayDelimiter, clearedDataClasses);
+        ArgumentParser argumentParser;
+        synchronized (parserMap) {
+            removeClearedEntries();
+            argumentParser = getParser(key);
+        }
+        if (argumentParser != null) {
+            hitCount.incrementAndGet();
+            return argumentParser;
+        }
+
+        // Compile without holding the lock, an invalid usage expression throws here and is never cached
+        missCount.incrementAndGet();
+        ArgumentParser compiledParser = new ArgumentParser(usageExpression, dataHolderClass, arrayDelimiter);
+        compiledParser.compile();
+
+        synchronized (parserMap) {
+            // Another thread might have compiled the same meanwhile, so that all the callers share one parser
+            argumentParser = getParser(key);
+            if (argumentParser == null) {
+                argumentParser = compiledParser;
+                parserMap.put(key, new ParserHolder(compiledParser, dataHolderClass));
+                evict();
+            }
+        }
+        return argumentParser;
+    }
+
+    private ArgumentParser getParser(PlanKey key) {
+        ParserHolder parserHolder = parserMap.get(key);
+        ArgumentParser argumentParser = parserHolder == null ? null : parserHolder.get();
+        if (parserHolder != null && argumentParser == null) {
+            parserMap.remove(key);
+        }
+        return argumentParser;
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<PlanKey, ParserHolder>> iterator = parserMap.entrySet().iterator();
+        while (parserMap.size() > maximumSize && iterator.hasNext()) {
+            Map.Entry<PlanKey, ParserHolder> eldest = iterator.next();
+            iterator.remove();
+            eldest.getValue().release();
+            evictionCount.incrementAndGet();
+            logger.trace("Evicted parser for usage expression: {}", eldest.getKey().usageExpression);
+        }
+    }
+
+    /*
+    A key whose data class has been garbage collected is not equal to any key, not even to itself, so it is found by identity of the reference
+    */
+    private void removeClearedEntries() {
+        Reference<? extends Class<?>> clearedDataClass;
+        while ((clearedDataClass = clearedDataClasses.poll()) != null) {
+            Iterator<PlanKey> iterator = parserMap.keySet().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().dataClassReference == clearedDataClass) {
+                    iterator.remove();
+                    logger.trace("Removed parser for a data class which has been unloaded");
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove all the parsers. The hit, miss and eviction counts are not reset
+     */
+    public void clear() {
+        synchronized (parserMap) {
+            for (ParserHolder parserHolder : parserMap.values()) {
+                parserHolder.release();
+            }
+            parserMap.clear();
+        }
+    }
+
+    /**
+     *
+     * @return Number of parsers currently kept, including those which garbage collector has cleared but are not removed yet
+     */
+    public int size() {
+        synchronized (parserMap) {
+            return parserMap.size();
+        }
+    }
+
+    /**
+     *
+     * @return Number of times a compiled parser was found in the cache
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     *
+     * @return Number of times a parser had to be compiled
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     *
+     * @return Number of parsers removed to keep the cache within its size
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /*
+    A parser is the only strong path from the cache to its data class, so it is held weakly unless its class loader outlives the cache anyway.
+    The strong reference keeping a weakly held parser alive is then attached to its data class, and is dropped when the entry is evicted
+    */
+    private static class ParserHolder {
+        private static final boolean CLASS_VALUE_AVAILABLE = isClassValueAvailable();
+
+        private final ArgumentParser strongParser;
+        private final WeakReference<ArgumentParser> weakParser;
+        private final WeakReference<Class<?>> weakDataClass;
+
+        ParserHolder(ArgumentParser argumentParser, Class<?> dataClass) {
+            if (!CLASS_VALUE_AVAILABLE || isLoadedByCacheLoader(dataClass)) {
+                this.strongParser = argumentParser;
+                this.weakParser = null;
+                this.weakDataClass = null;
+            } else {
+                this.strongParser = null;
+                this.weakParser = new WeakReference<ArgumentParser>(argumentParser);
+                this.weakDataClass = new WeakReference<Class<?>>(dataClass);
+                DataClassParsers.INSTANCE.get(dataClass).put(argumentParser, Boolean.TRUE);
+            }
+        }
+
+        private static boolean isClassValueAvailable() {
+            try {
+                Class.forName("java.lang.ClassValue");
+                return true;
+            } catch (ClassNotFoundException e) {
+                logger.debug("Parsers of data classes loaded by other class loaders are kept until evicted, ClassValue is not available");
+                return false;
+            }
+        }
+
+        private static boolean isLoadedByCacheLoader(Class<?> dataClass) {
+            ClassLoader dataClassLoader = dataClass.getClassLoader();
+            if (dataClassLoader == null) {
+                return true;
+            }
+            for (ClassLoader loader = ArgumentParserCache.class.getClassLoader(); loader != null; loader = loader.getParent()) {
+                if (loader == dataClassLoader) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        ArgumentParser get() {
+            return strongParser != null ? strongParser : weakParser.get();
+        }
+
+        void release() {
+            if (weakParser != null) {
+                ArgumentParser argumentParser = weakParser.get();
+                Class<?> dataClass = weakDataClass.get();
+                if (argumentParser != null && dataClass != null) {
+                    DataClassParsers.INSTANCE.get(dataClass).remove(argumentParser);
+                }
+            }
+        }
+    }
+
+    /*
+    Parsers kept alive by their data class, so that these are unloaded along with it. Loaded only if ClassValue is available
+    */
+    private static class DataClassParsers extends ClassValue<Map<ArgumentParser, Boolean>> {
+        private static final DataClassParsers INSTANCE = new DataClassParsers();
+
+        @Override
+        protected Map<ArgumentParser, Boolean> computeValue(Class<?> dataClass) {
+            return Collections.synchronizedMap(new IdentityHashMap<ArgumentParser, Boolean>());
+        }
+    }
+
+    private static class PlanKey {
+        private final String usageExpression;
+        private final WeakReference<Class<?>> dataClassReference;
+        private final String arrayDelimiter;
+        private final int hash;
+
+        PlanKey(String usageExpression, Class<?> dataClass, String arrayDelimiter, ReferenceQueue<Class<?>> clearedDataClasses) {
+            this.usageExpression = usageExpression;
+            this.dataClassReference = new WeakReference<Class<?>>(dataClass, clearedDataClasses);
+            this.arrayDelimiter = arrayDelimiter;
+
+            int h = 7;
+            h = 59 * h + usageExpression.hashCode();
+            h = 59 * h + System.identityHashCode(dataClass);
+            h = 59 * h + arrayDelimiter.hashCode();
+            this.hash = h;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final PlanKey other = (PlanKey) obj;
+            Class<?> dataClass = dataClassReference.get();
+
+            return dataClass != null && dataClass == other.dataClassReference.get() && usageExpression.equals(other.usageExpression)
+                    && arrayDelimiter.equals(other.arrayDelimiter);
+        }
+    }
+}
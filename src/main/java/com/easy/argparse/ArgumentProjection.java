@@ -0,0 +1,51 @@
+package com.easy.argparse;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This immutable class extracts the values of a few options from command line arguments without parsing all of these, e.g. to route a
+ * request by {@code --tenant} and {@code --region} before it is fully parsed elsewhere. Values are neither converted nor checked, and other
+ * options are skipped without being checked. An instance is obtained by {@link ArgumentParser#projection(String...)} and can be shared by
+ * threads
+ *
+ * @author himanshu_shekhar
+ */
+public class ArgumentProjection {
+    private final FieldValueManager fieldValueManager;
+    private final UsageToken[] usageTokens;
+    private final List<String> dataVariableNames;
+
+    ArgumentProjection(FieldValueManager fieldValueManager, UsageToken[] usageTokens) {
+        this.fieldValueManager = fieldValueManager;
+        this.usageTokens = usageTokens;
+        String[] names = new String[usageTokens.length];
+        for (int index = 0; index < usageTokens.length; index++) {
+            names[index] = usageTokens[index].getDataVariableName();
+        }
+        this.dataVariableNames = Collections.unmodifiableList(Arrays.asList(names));
+    }
+
+    /**
+     * Scan the arguments until {@code --}, or the first operand if usage expression accepts operands. An option repeated in the arguments
+     * takes its last value, same as {@link ArgumentParser#parse(String[])}, so the arguments are scanned even after every projected option
+     * has been found
+     *
+     * @param args The values representing command line arguments
+     * @return The text of last value found for each projected option, in the order of {@link #getDataVariableNames()}, {@code "true"}
+     * for a boolean option, or null if the option is not available
+     * @throws IllegalArgumentException If an option is not written as usage expression allows, e.g. a value attached to a boolean option
+     */
+    public String[] extract(String[] args) {
+        return fieldValueManager.getProjectedValues(args, usageTokens);
+    }
+
+    /**
+     *
+     * @return Data variable names of the projected options, in the order of their values
+     */
+    public List<String> getDataVariableNames() {
+        return dataVariableNames;
+    }
+}
@@ -0,0 +1,33 @@
+package com.easy.argparse;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Source of command line arguments which are read one after another, so that arguments need not be available all at once
+ *
+ * @author himanshu_shekhar
+ */
+interface ArgumentReader {
+
+    /**
+     *
+     * @return The next argument, or null if there are no more arguments
+     * @throws IOException If the arguments could not be read
+     */
+    String next() throws IOException;
+
+    /**
+     *
+     * @return Index of the argument most recently returned by {@link #next()}
+     */
+    int getIndex();
+
+    /**
+     *
+     * @param includingCurrent If the argument most recently returned by {@link #next()} should be included
+     * @return All the arguments which have not been read yet
+     * @throws IOException If the arguments could not be read
+     */
+    List<String> getRemaining(boolean includingCurrent) throws IOException;
+}
@@ -0,0 +1,201 @@
+package com.easy.argparse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class classifies a command line argument in a single pass over its characters. Options are matched against the usage tokens by
+ * comparing regions of the argument, so no substring is created except for a value attached to the option. Below forms are recognized:
+ * <ul>
+ *    <li>{@code --} marks the end of options</li>
+ *    <li>{@code -m} or {@code --min} is an option whose value, if any, is the next argument</li>
+ *    <li>{@code --min=20} is an option with attached value {@code 20}</li>
+ *    <li>{@code -m20} or {@code -n-5} is a single character option with attached value {@code 20} or {@code -5}</li>
+ *    <li>{@code -abc} is a cluster of single character boolean options {@code -a -b -c}</li>
+ *    <li>Anything else, including {@code -} and negative numbers like {@code -5} which are not an option, is not an option</li>
+ * </ul>
+ * An argument which looks like an option but has no usage token fails the scan, unless unknown options are passed through
+ * Like {@link java.util.regex.Matcher}, result of the last scan is kept in this instance, so it is not thread-safe and a new instance should
+ * be used for every parse
+ *
+ * @author himanshu_shekhar
+ */
+class ArgumentScanner {
+
+    /**
+     * Classification of a command line argument
+     */
+    enum Kind {
+        OPTION,
+        OPTION_WITH_VALUE,
+        OPTION_CLUSTER,
+        END_OF_OPTIONS,
+        NON_OPTION,
+        UNKNOWN_OPTION
+    }
+
+    private final UsageTokenManager usageTokenManager;
+    private final FieldValueManager fieldValueManager;
+    private final List<UsageToken> clusterUsageTokens;
+    private final boolean passThrough;
+
+    private UsageToken usageToken;
+    private int valueStartIndex;
+
+    /**
+     *
+     * @param usageTokenManager Instance which provides usage tokens corresponding to usage expression
+     * @param fieldValueManager Instance which tells if an option needs a value
+     * @param passThrough If an argument which looks like an option but has no usage token is scanned as {@link Kind#UNKNOWN_OPTION} instead
+     * of failing the scan
+     */
+    ArgumentScanner(UsageTokenManager usageTokenManager, FieldValueManager fieldValueManager, boolean passThrough) {
+        this.usageTokenManager = usageTokenManager;
+        this.fieldValueManager = fieldValueManager;
+        this.clusterUsageTokens = new ArrayList<UsageToken>();
+        this.passThrough = passThrough;
+    }
+
+    /**
+     *
+     * @param argument The command line argument
+     * @return Kind of the argument
+     * @throws IllegalArgumentException If argument looks like an option but no corresponding usage token could be found, unless unknown
+     * options are passed through
+     */
+    Kind scan(String argument) {
+        usageToken = null;
+        valueStartIndex = -1;
+        clusterUsageTokens.clear();
+
+        int length = argument.length();
+        if (length < 2 || argument.charAt(0) != '-') {
+            return Kind.NON_OPTION;
+        }
+        if (argument.charAt(1) == '-') {
+            return length == 2 ? Kind.END_OF_OPTIONS : scanLongOption(argument);
+        }
+        return scanShortOption(argument);
+    }
+
+    private Kind scanLongOption(String argument) {
+        int separatorIndex = argument.indexOf('=', 2);
+        int nameEndIndex = separatorIndex == -1 ? argument.length() : separatorIndex;
+        usageToken = usageTokenManager.findUsageToken(argument, 2, nameEndIndex);
+        if (usageToken == null) {
+            return getUnknownOptionKind(argument, 2, nameEndIndex);
+        }
+        if (separatorIndex == -1) {
+            return Kind.OPTION;
+        }
+        if (!fieldValueManager.needsValue(usageToken)) {
+            throw new IllegalArgumentException("Option (" + argument.substring(2, nameEndIndex) + ") does not accept a value");
+        }
+        valueStartIndex = separatorIndex + 1;
+        return Kind.OPTION_WITH_VALUE;
+    }
+
+    /*
+    The whole argument naming an option wins over single character option with attached value and over cluster, e.g. "-min" is taken as
+    option "min" if there is one, and only then as option "m" with value "in"
+    */
+    private Kind scanShortOption(String argument) {
+        int length = argument.length();
+        usageToken = usageTokenManager.findUsageToken(argument, 1, length);
+        if (usageToken != null) {
+            return Kind.OPTION;
+        }
+
+        UsageToken firstUsageToken = usageTokenManager.findUsageToken(argument, 1, 2);
+        if (firstUsageToken == null) {
+            if (isNegativeNumber(argument)) {
+                return Kind.NON_OPTION;
+            }
+            return getUnknownOptionKind(argument, 1, length);
+        }
+        if (fieldValueManager.needsValue(firstUsageToken)) {
+            usageToken = firstUsageToken;
+            valueStartIndex = 2;
+            return Kind.OPTION_WITH_VALUE;
+        }
+
+        clusterUsageTokens.add(firstUsageToken);
+        for (int index = 2; index < length; index++) {
+            UsageToken clusterUsageToken = usageTokenManager.findUsageToken(argument, index, index + 1);
+            if (clusterUsageToken == null) {
+                clusterUsageTokens.clear();
+                return getUnknownOptionKind(argument, index, index + 1);
+            }
+            if (fieldValueManager.needsValue(clusterUsageToken)) {
+                throw new IllegalArgumentException("Option (" + argument.charAt(index) + ") in (" + argument + ") needs a value, so it "
+                        + "cannot be clustered with other options");
+            }
+            clusterUsageTokens.add(clusterUsageToken);
+        }
+        return Kind.OPTION_CLUSTER;
+    }
+
+    private Kind getUnknownOptionKind(String argument, int start, int end) {
+        if (passThrough) {
+            return Kind.UNKNOWN_OPTION;
+        }
+        throw getUnknownOptionException(argument, start, end);
+    }
+
+    /*
+    Delegate so that the message is the same as for any other unknown option
+    */
+    private IllegalArgumentException getUnknownOptionException(String argument, int start, int end) {
+        try {
+            usageTokenManager.findUsageToken(argument.substring(start, end));
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+        return new IllegalArgumentException("No usage definition could be found for option (" + argument + ")");
+    }
+
+    /**
+     *
+     * @param argument The command line argument
+     * @return If the argument is a negative number like {@code -5}, {@code -0.5} or {@code -.5}, but not an option
+     */
+    boolean isNegativeValue(String argument) {
+        return isNegativeNumber(argument) && usageTokenManager.findUsageToken(argument, 1, argument.length()) == null;
+    }
+
+    private static boolean isNegativeNumber(String argument) {
+        if (argument.length() < 2 || argument.charAt(0) != '-') {
+            return false;
+        }
+        char first = argument.charAt(1);
+        if (first == '.') {
+            return argument.length() > 2 && Character.isDigit(argument.charAt(2));
+        }
+        return Character.isDigit(first);
+    }
+
+    /**
+     *
+     * @return Usage token of the option found by the last scan, if the argument is an option
+     */
+    UsageToken getUsageToken() {
+        return usageToken;
+    }
+
+    /**
+     *
+     * @param argument The command line argument last scanned
+     * @return The value attached to the option, if the argument is an option with value
+     */
+    String getAttachedValue(String argument) {
+        return argument.substring(valueStartIndex);
+    }
+
+    /**
+     *
+     * @return Usage tokens of the options found by the last scan, if the argument is a cluster of options
+     */
+    List<UsageToken> getClusterUsageTokens() {
+        return clusterUsageTokens;
+    }
+}
@@ -0,0 +1,45 @@
+package com.easy.argparse;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * This class provides a read-only {@code List} view over a range of command line arguments without copying them. Since the view refers to the
+ * original array of arguments, any change made to the array afterwards is visible through the view as well
+ *
+ * @author himanshu_shekhar
+ */
+public class ArgumentsView extends AbstractList<String> implements RandomAccess {
+    private final String[] args;
+    private final int fromIndex;
+    private final int toIndex;
+
+    /**
+     *
+     * @param args The command line arguments
+     * @param fromIndex Index of first argument in the view, inclusive
+     * @param toIndex Index of last argument in the view, exclusive
+     * @throws IndexOutOfBoundsException If given range is not within {@code args}
+     */
+    public ArgumentsView(String[] args, int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > args.length || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range [" + fromIndex + ", " + toIndex + ") is not within " + args.length + " arguments");
+        }
+        this.args = args;
+        this.fromIndex = fromIndex;
+        this.toIndex = toIndex;
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        return args[fromIndex + index];
+    }
+
+    @Override
+    public int size() {
+        return toIndex - fromIndex;
+    }
+}
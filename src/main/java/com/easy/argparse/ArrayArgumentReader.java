@@ -0,0 +1,42 @@
+package com.easy.argparse;
+
+import java.util.List;
+
+/**
+ * This class reads the arguments from an array of {@code String}. It is not thread-safe, so a new instance should be used for every parse
+ *
+ * @author himanshu_shekhar
+ */
+class ArrayArgumentReader implements ArgumentReader {
+    private final String[] args;
+    private int index;
+
+    /**
+     *
+     * @param args The command line arguments
+     */
+    ArrayArgumentReader(String[] args) {
+        this.args = args;
+        this.index = -1;
+    }
+
+    public String next() {
+        if (index + 1 >= args.length) {
+            index = args.length;
+            return null;
+        }
+        return args[++index];
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    /*
+    The remaining arguments are not copied, a view over the array is returned instead
+    */
+    public List<String> getRemaining(boolean includingCurrent) {
+        int fromIndex = includingCurrent ? index : index + 1;
+        return new ArgumentsView(args, Math.min(fromIndex, args.length), args.length);
+    }
+}
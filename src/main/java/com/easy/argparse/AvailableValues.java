@@ -0,0 +1,81 @@
+package com.easy.argparse;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class keeps the values available in command line arguments of one parse, i.e. the text available for every option and the operands if
+ * any. It is not thread-safe, a new instance is created by every parse and is not shared afterwards
+ *
+ * @author himanshu_shekhar
+ */
+public class AvailableValues {
+    private final Map<UsageToken, String> valueMap;
+    private List<String> operands;
+    private int[] unrecognizedIndices;
+    private int unrecognizedCount;
+
+    AvailableValues() {
+        this.valueMap = new LinkedHashMap<UsageToken, String>();
+    }
+
+    void put(UsageToken usageToken, String value) {
+        valueMap.put(usageToken, value);
+    }
+
+    /*
+    Indices are kept in a growing array of primitives, so that passing through many arguments does not box these
+    */
+    void addUnrecognizedIndex(int index) {
+        if (unrecognizedIndices == null) {
+            unrecognizedIndices = new int[8];
+        } else if (unrecognizedCount == unrecognizedIndices.length) {
+            int[] grownIndices = new int[unrecognizedCount * 2];
+            System.arraycopy(unrecognizedIndices, 0, grownIndices, 0, unrecognizedCount);
+            unrecognizedIndices = grownIndices;
+        }
+        unrecognizedIndices[unrecognizedCount++] = index;
+    }
+
+    /**
+     *
+     * @param args The command line arguments which were parsed
+     * @return A view over the arguments which were not recognized when passing these through, in order of their appearance
+     */
+    List<String> getUnrecognizedArguments(String[] args) {
+        return new IndexedArgumentsView(args, unrecognizedIndices == null ? new int[0] : unrecognizedIndices, unrecognizedCount);
+    }
+
+    void setOperands(UsageToken operandUsageToken, List<String> operands) {
+        this.operands = operands;
+        valueMap.put(operandUsageToken, "");
+    }
+
+    /**
+     *
+     * @param usageToken The usage token corresponding to an option in the usage expression
+     * @return The text available in command line arguments for the option, empty for boolean options and operands, or null if not available
+     */
+    public String getValue(UsageToken usageToken) {
+        return valueMap.get(usageToken);
+    }
+
+    /**
+     *
+     * @return The operands available in command line arguments, or null if none
+     */
+    public List<String> getOperands() {
+        return operands;
+    }
+
+    /**
+     *
+     * @return A set of usage tokens for which values are available in the command line arguments, in order of their appearance
+     */
+    public Set<UsageToken> getUsageTokens() {
+        return Collections.unmodifiableSet(valueMap.keySet());
+    }
+}
@@ -0,0 +1,312 @@
+package com.easy.argparse;
+
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This immutable class encodes the values parsed into an instance of data class as a compact binary record, laid out as per the usage tokens
+ * of a compiled parser, e.g. to pass parsed settings to another process or keep them in a queue. The record is read back field by field by
+ * a {@link BinaryRecordReader}, without decoding anything which is not read. A record has, in this order:
+ * <ul>
+ *    <li>Hash of the layout (4 bytes), so that a record is not read by a different layout</li>
+ *    <li>Bitmap of the variables which are present, i.e. not null, one bit per variable in the order of usage expression</li>
+ *    <li>A slot per variable: the value itself for a primitive or its wrapper ({@code boolean} and {@code byte} in 1 byte, {@code char}
+ *    and {@code short} in 2, {@code int} and {@code float} in 4, {@code long} and {@code double} in 8), or else the offset (4 bytes) of
+ *    the value from start of the record</li>
+ *    <li>The values of other variables: a {@code String} or enum constant as length in bytes (4 bytes) followed by its name in UTF-8, an
+ *    array or collection as number of elements (4 bytes) followed by each element encoded like a slot, or like a {@code String}</li>
+ * </ul>
+ * All the numbers are big endian
+ *
+ * @author himanshu_shekhar
+ */
+public class BinaryRecordLayout {
+    private static final String UTF_8 = "UTF-8";
+
+    /**
+     * Encoding of a value or of an element of array or collection
+     */
+    enum Kind {
+        BOOLEAN(1),
+        BYTE(1),
+        CHAR(2),
+        SHORT(2),
+        INT(4),
+        LONG(8),
+        FLOAT(4),
+        DOUBLE(8),
+        TEXT(4);
+
+        private final int width;
+
+        private Kind(int width) {
+            this.width = width;
+        }
+
+        int getWidth() {
+            return width;
+        }
+    }
+
+    private static final Map<Class<?>, Kind> KIND_MAP = new HashMap<Class<?>, Kind>();
+
+    static {
+        KIND_MAP.put(boolean.class, Kind.BOOLEAN);
+        KIND_MAP.put(Boolean.class, Kind.BOOLEAN);
+        KIND_MAP.put(byte.class, Kind.BYTE);
+        KIND_MAP.put(Byte.class, Kind.BYTE);
+        KIND_MAP.put(char.class, Kind.CHAR);
+        KIND_MAP.put(Character.class, Kind.CHAR);
+        KIND_MAP.put(short.class, Kind.SHORT);
+        KIND_MAP.put(Short.class, Kind.SHORT);
+        KIND_MAP.put(int.class, Kind.INT);
+        KIND_MAP.put(Integer.class, Kind.INT);
+        KIND_MAP.put(long.class, Kind.LONG);
+        KIND_MAP.put(Long.class, Kind.LONG);
+        KIND_MAP.put(float.class, Kind.FLOAT);
+        KIND_MAP.put(Float.class, Kind.FLOAT);
+        KIND_MAP.put(double.class, Kind.DOUBLE);
+        KIND_MAP.put(Double.class, Kind.DOUBLE);
+        KIND_MAP.put(String.class, Kind.TEXT);
+    }
+
+    static final int BITMAP_OFFSET = 4;
+
+    private final ArgumentParser argumentParser;
+    private final UsageToken[] usageTokens;
+    private final Kind[] kinds;
+    private final boolean[] repeated;
+    private final int[] slotOffsets;
+    private final Map<String, Integer> indexMap;
+    private final List<String> dataVariableNames;
+    private final int fixedLength;
+    private final int layoutHash;
+
+    /**
+     *
+     * @param argumentParser The parser whose data class instances will be encoded. It is compiled, unless already done
+     * @throws IllegalArgumentException If usage expression or data class is not valid
+     */
+    public BinaryRecordLayout(ArgumentParser argumentParser) {
+        List<UsageToken> allUsageTokens = argumentParser.getUsageTokens();
+        this.argumentParser = argumentParser;
+        this.usageTokens = allUsageTokens.toArray(new UsageToken[allUsageTokens.size()]);
+        this.kinds = new Kind[usageTokens.length];
+        this.repeated = new boolean[usageTokens.length];
+        this.slotOffsets = new int[usageTokens.length];
+        this.indexMap = new HashMap<String, Integer>();
+
+        String[] names = new String[usageTokens.length];
+        int offset = BITMAP_OFFSET + (usageTokens.length + 7) / 8;
+        int hash = 7;
+        for (int index = 0; index < usageTokens.length; index++) {
+            Field field = argumentParser.getMappedField(usageTokens[index]);
+            Class<?> fieldType = field.getType();
+            Class<?> elementType = DataClassValidator.getElementType(field);
+            repeated[index] = fieldType.isArray() || DataClassValidator.isCollection(fieldType);
+            kinds[index] = elementType != null && elementType.isEnum() ? Kind.TEXT : KIND_MAP.get(elementType);
+            if (kinds[index] == null) {
+                throw new IllegalArgumentException("Variable " + field.getName() + " of type " + fieldType.getCanonicalName()
+                        + " cannot be encoded");
+            }
+
+            names[index] = usageTokens[index].getDataVariableName();
+            indexMap.put(names[index], index);
+            slotOffsets[index] = offset;
+            offset += repeated[index] ? 4 : kinds[index].getWidth();
+            hash = 59 * hash + names[index].hashCode();
+            hash = 59 * hash + kinds[index].ordinal() * 2 + (repeated[index] ? 1 : 0);
+        }
+        this.fixedLength = offset;
+        this.layoutHash = hash;
+        this.dataVariableNames = Collections.unmodifiableList(Arrays.asList(names));
+    }
+
+    /**
+     *
+     * @param dataHolderObject An instance of data class of the parser, e.g. as returned by {@link ArgumentParser#parse(String[])}
+     * @return A buffer holding the record, from its position to its limit
+     * @throws IllegalArgumentException If an array or collection has a null element
+     */
+    public ByteBuffer encode(Object dataHolderObject) {
+        Object[] values = new Object[usageTokens.length];
+        int length = fixedLength;
+        for (int index = 0; index < usageTokens.length; index++) {
+            Object value = argumentParser.getFieldValue(usageTokens[index], dataHolderObject);
+            if (value == null) {
+                continue;
+            }
+            if (repeated[index]) {
+                List<Object> elements = getElements(value, index);
+                if (kinds[index] == Kind.TEXT) {
+                    for (int elementIndex = 0; elementIndex < elements.size(); elementIndex++) {
+                        byte[] encoded = encodeText(elements.get(elementIndex));
+                        elements.set(elementIndex, encoded);
+                        length += 4 + encoded.length;
+                    }
+                } else {
+                    length += elements.size() * kinds[index].getWidth();
+                }
+                length += 4;
+                values[index] = elements;
+            } else if (kinds[index] == Kind.TEXT) {
+                byte[] encoded = encodeText(value);
+                length += 4 + encoded.length;
+                values[index] = encoded;
+            } else {
+                values[index] = value;
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.putInt(0, layoutHash);
+        buffer.position(fixedLength);
+        for (int index = 0; index < usageTokens.length; index++) {
+            Object value = values[index];
+            if (value == null) {
+                continue;
+            }
+            int bitmapIndex = BITMAP_OFFSET + index / 8;
+            buffer.put(bitmapIndex, (byte) (buffer.get(bitmapIndex) | (1 << (index % 8))));
+            if (!repeated[index] && kinds[index] != Kind.TEXT) {
+                putFixed(buffer, slotOffsets[index], kinds[index], value);
+                continue;
+            }
+
+            buffer.putInt(slotOffsets[index], buffer.position());
+            if (!repeated[index]) {
+                putText(buffer, (byte[]) value);
+                continue;
+            }
+            List<?> elements = (List<?>) value;
+            buffer.putInt(elements.size());
+            for (Object element : elements) {
+                if (kinds[index] == Kind.TEXT) {
+                    putText(buffer, (byte[]) element);
+                } else {
+                    putFixed(buffer, buffer.position(), kinds[index], element);
+                    buffer.position(buffer.position() + kinds[index].getWidth());
+                }
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private List<Object> getElements(Object value, int index) {
+        List<Object> elements = new ArrayList<Object>();
+        if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            for (int elementIndex = 0; elementIndex < length; elementIndex++) {
+                elements.add(Array.get(value, elementIndex));
+            }
+        } else {
+            elements.addAll((Collection<?>) value);
+        }
+        if (elements.contains(null)) {
+            throw new IllegalArgumentException("Null element in " + usageTokens[index].getDataVariableName() + " cannot be encoded");
+        }
+        return elements;
+    }
+
+    private static byte[] encodeText(Object value) {
+        String text = value instanceof Enum ? ((Enum<?>) value).name() : (String) value;
+        try {
+            return text.getBytes(UTF_8);
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException("Cannot encode text (" + e.getMessage() + ")", e);
+        }
+    }
+
+    private static void putText(ByteBuffer buffer, byte[] encoded) {
+        buffer.putInt(encoded.length);
+        buffer.put(encoded);
+    }
+
+    private static void putFixed(ByteBuffer buffer, int offset, Kind kind, Object value) {
+        switch (kind) {
+            case BOOLEAN:
+                buffer.put(offset, (byte) (((Boolean) value) ? 1 : 0));
+                break;
+            case BYTE:
+                buffer.put(offset, (Byte) value);
+                break;
+            case CHAR:
+                buffer.putChar(offset, (Character) value);
+                break;
+            case SHORT:
+                buffer.putShort(offset, (Short) value);
+                break;
+            case INT:
+                buffer.putInt(offset, ((Number) value).intValue());
+                break;
+            case LONG:
+                buffer.putLong(offset, ((Number) value).longValue());
+                break;
+            case FLOAT:
+                buffer.putFloat(offset, (Float) value);
+                break;
+            default:
+                buffer.putDouble(offset, (Double) value);
+        }
+    }
+
+    /**
+     *
+     * @return A new reader of the records encoded by this layout
+     */
+    public BinaryRecordReader newReader() {
+        return new BinaryRecordReader(this);
+    }
+
+    /**
+     *
+     * @return Data variable names of all the variables in a record, in the order of their slots
+     */
+    public List<String> getDataVariableNames() {
+        return dataVariableNames;
+    }
+
+    /**
+     *
+     * @param dataVariableName Data variable name of a variable in usage expression
+     * @return Index of the variable
+     * @throws IllegalArgumentException If usage expression has no such variable
+     */
+    int indexOf(String dataVariableName) {
+        Integer index = indexMap.get(dataVariableName);
+        if (index == null) {
+            throw new IllegalArgumentException("No variable (" + dataVariableName + ") in binary record");
+        }
+        return index;
+    }
+
+    Kind getKind(int index) {
+        return kinds[index];
+    }
+
+    boolean isRepeated(int index) {
+        return repeated[index];
+    }
+
+    int getSlotOffset(int index) {
+        return slotOffsets[index];
+    }
+
+    int getLayoutHash() {
+        return layoutHash;
+    }
+
+    int getFixedLength() {
+        return fixedLength;
+    }
+}
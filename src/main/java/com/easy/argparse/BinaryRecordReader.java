@@ -0,0 +1,229 @@
+package com.easy.argparse;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * This class reads the variables of a record encoded by a {@link BinaryRecordLayout} directly from the buffer, so only the variables read
+ * are decoded and nothing is copied but the bytes of a {@code String}. The same reader can be moved over any number of records by
+ * {@link #wrap(ByteBuffer)}, but it is not thread-safe and a thread should use its own reader <br>
+ * A getter must match the type of the variable, e.g. {@link #getInt(String)} for an {@code int} or {@code Integer}, and
+ * {@link #getString(String)} for a {@code String} or enum. A getter of a variable which is not present returns {@code 0}, {@code false} or
+ * null, see {@link #isPresent(String)}. Elements of an array or collection are read by giving their index, those of {@code String}s by
+ * skipping the ones before
+ *
+ * @author himanshu_shekhar
+ */
+public class BinaryRecordReader {
+    private static final String UTF_8 = "UTF-8";
+
+    private final BinaryRecordLayout layout;
+
+    private ByteBuffer buffer;
+    private int start;
+
+    BinaryRecordReader(BinaryRecordLayout layout) {
+        this.layout = layout;
+    }
+
+    /**
+     *
+     * @param buffer The buffer with a record starting at its position. It is neither copied nor modified
+     * @return This reader
+     * @throws IllegalArgumentException If the buffer is not big endian, the record was not encoded by the same layout, or it is shorter
+     * than the slots of the layout
+     */
+    public BinaryRecordReader wrap(ByteBuffer buffer) {
+        if (buffer.order() != ByteOrder.BIG_ENDIAN) {
+            throw new IllegalArgumentException("Binary record must be read in big endian order");
+        }
+        if (buffer.remaining() < BinaryRecordLayout.BITMAP_OFFSET || buffer.getInt(buffer.position()) != layout.getLayoutHash()) {
+            throw new IllegalArgumentException("Binary record was not encoded by this layout");
+        }
+        if (buffer.remaining() < layout.getFixedLength()) {
+            throw new IllegalArgumentException("Binary record (" + buffer.remaining() + " bytes) is shorter than the slots of its layout ("
+                    + layout.getFixedLength() + " bytes)");
+        }
+        this.buffer = buffer;
+        this.start = buffer.position();
+        return this;
+    }
+
+    /**
+     *
+     * @param dataVariableName Data variable name of a variable in usage expression
+     * @return If the value of variable was not null
+     */
+    public boolean isPresent(String dataVariableName) {
+        return isPresent(layout.indexOf(dataVariableName));
+    }
+
+    private boolean isPresent(int index) {
+        return (buffer.get(start + BinaryRecordLayout.BITMAP_OFFSET + index / 8) & (1 << (index % 8))) != 0;
+    }
+
+    public boolean getBoolean(String dataVariableName) {
+        int offset = getScalarOffset(dataVariableName, BinaryRecordLayout.Kind.BOOLEAN);
+        return offset != -1 && buffer.get(offset) != 0;
+    }
+
+    public byte getByte(String dataVariableName) {
+        int offset = getScalarOffset(dataVariableName, BinaryRecordLayout.Kind.BYTE);
+        return offset == -1 ? 0 : buffer.get(offset);
+    }
+
+    public char getChar(String dataVariableName) {
+        int offset = getScalarOffset(dataVariableName, BinaryRecordLayout.Kind.CHAR);
+        return offset == -1 ? 0 : buffer.getChar(offset);
+    }
+
+    public short getShort(String dataVariableName) {
+        int offset = getScalarOffset(dataVariableName, BinaryRecordLayout.Kind.SHORT);
+        return offset == -1 ? 0 : buffer.getShort(offset);
+    }
+
+    public int getInt(String dataVariableName) {
+        int offset = getScalarOffset(dataVariableName, BinaryRecordLayout.Kind.INT);
+        return offset == -1 ? 0 : buffer.getInt(offset);
+    }
+
+    public long getLong(String dataVariableName) {
+        int offset = getScalarOffset(dataVariableName, BinaryRecordLayout.Kind.LONG);
+        return offset == -1 ? 0 : buffer.getLong(offset);
+    }
+
+    public float getFloat(String dataVariableName) {
+        int offset = getScalarOffset(dataVariableName, BinaryRecordLayout.Kind.FLOAT);
+        return offset == -1 ? 0 : buffer.getFloat(offset);
+    }
+
+    public double getDouble(String dataVariableName) {
+        int offset = getScalarOffset(dataVariableName, BinaryRecordLayout.Kind.DOUBLE);
+        return offset == -1 ? 0 : buffer.getDouble(offset);
+    }
+
+    /**
+     *
+     * @param dataVariableName Data variable name of a {@code String} or enum variable
+     * @return The text, or name of the enum constant
+     */
+    public String getString(String dataVariableName) {
+        int offset = getScalarOffset(dataVariableName, BinaryRecordLayout.Kind.TEXT);
+        return offset == -1 ? null : getText(start + buffer.getInt(offset));
+    }
+
+    /**
+     *
+     * @param dataVariableName Data variable name of an array or collection variable
+     * @return Number of elements, or -1 if the variable is not present
+     */
+    public int getLength(String dataVariableName) {
+        int index = layout.indexOf(dataVariableName);
+        if (!layout.isRepeated(index)) {
+            throw new IllegalArgumentException("Variable (" + dataVariableName + ") is not an array or collection");
+        }
+        return isPresent(index) ? buffer.getInt(getValueOffset(index)) : -1;
+    }
+
+    public boolean getBoolean(String dataVariableName, int elementIndex) {
+        return buffer.get(getElementOffset(dataVariableName, BinaryRecordLayout.Kind.BOOLEAN, elementIndex)) != 0;
+    }
+
+    public byte getByte(String dataVariableName, int elementIndex) {
+        return buffer.get(getElementOffset(dataVariableName, BinaryRecordLayout.Kind.BYTE, elementIndex));
+    }
+
+    public char getChar(String dataVariableName, int elementIndex) {
+        return buffer.getChar(getElementOffset(dataVariableName, BinaryRecordLayout.Kind.CHAR, elementIndex));
+    }
+
+    public short getShort(String dataVariableName, int elementIndex) {
+        return buffer.getShort(getElementOffset(dataVariableName, BinaryRecordLayout.Kind.SHORT, elementIndex));
+    }
+
+    public int getInt(String dataVariableName, int elementIndex) {
+        return buffer.getInt(getElementOffset(dataVariableName, BinaryRecordLayout.Kind.INT, elementIndex));
+    }
+
+    public long getLong(String dataVariableName, int elementIndex) {
+        return buffer.getLong(getElementOffset(dataVariableName, BinaryRecordLayout.Kind.LONG, elementIndex));
+    }
+
+    public float getFloat(String dataVariableName, int elementIndex) {
+        return buffer.getFloat(getElementOffset(dataVariableName, BinaryRecordLayout.Kind.FLOAT, elementIndex));
+    }
+
+    public double getDouble(String dataVariableName, int elementIndex) {
+        return buffer.getDouble(getElementOffset(dataVariableName, BinaryRecordLayout.Kind.DOUBLE, elementIndex));
+    }
+
+    /**
+     *
+     * @param dataVariableName Data variable name of an array or collection of {@code String} or enum
+     * @param elementIndex Index of the element
+     * @return The text, or name of the enum constant
+     */
+    public String getString(String dataVariableName, int elementIndex) {
+        int offset = getElementOffset(dataVariableName, BinaryRecordLayout.Kind.TEXT, elementIndex);
+        return getText(offset);
+    }
+
+    /*
+    Absolute offset of the slot, or -1 if the variable is not present
+    */
+    private int getScalarOffset(String dataVariableName, BinaryRecordLayout.Kind kind) {
+        int index = layout.indexOf(dataVariableName);
+        if (layout.isRepeated(index) || layout.getKind(index) != kind) {
+            throw getKindException(dataVariableName, index);
+        }
+        return isPresent(index) ? start + layout.getSlotOffset(index) : -1;
+    }
+
+    private int getElementOffset(String dataVariableName, BinaryRecordLayout.Kind kind, int elementIndex) {
+        int index = layout.indexOf(dataVariableName);
+        if (!layout.isRepeated(index) || layout.getKind(index) != kind) {
+            throw getKindException(dataVariableName, index);
+        }
+        if (!isPresent(index)) {
+            throw new IllegalArgumentException("Variable (" + dataVariableName + ") is not present");
+        }
+        int valueOffset = getValueOffset(index);
+        int length = buffer.getInt(valueOffset);
+        if (elementIndex < 0 || elementIndex >= length) {
+            throw new IndexOutOfBoundsException("Index: " + elementIndex + ", Size: " + length);
+        }
+        if (kind != BinaryRecordLayout.Kind.TEXT) {
+            return valueOffset + 4 + elementIndex * kind.getWidth();
+        }
+        int offset = valueOffset + 4;
+        for (int skipped = 0; skipped < elementIndex; skipped++) {
+            offset += 4 + buffer.getInt(offset);
+        }
+        return offset;
+    }
+
+    private int getValueOffset(int index) {
+        return start + buffer.getInt(start + layout.getSlotOffset(index));
+    }
+
+    private IllegalArgumentException getKindException(String dataVariableName, int index) {
+        return new IllegalArgumentException("Variable (" + dataVariableName + ") is encoded as " + layout.getKind(index)
+                + (layout.isRepeated(index) ? " elements" : ""));
+    }
+
+    /*
+    Only the bytes of the text are copied, as a String cannot be created over the buffer
+    */
+    private String getText(int offset) {
+        byte[] bytes = new byte[buffer.getInt(offset)];
+        for (int index = 0; index < bytes.length; index++) {
+            bytes[index] = buffer.get(offset + 4 + index);
+        }
+        try {
+            return new String(bytes, UTF_8);
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException("Cannot decode text (" + e.getMessage() + ")", e);
+        }
+    }
+}
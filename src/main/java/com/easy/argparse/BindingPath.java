@@ -0,0 +1,141 @@
+package com.easy.argparse;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * This immutable class binds a value to the variable of a usage token in an instance of data class. A variable name like {@code db.pool.max}
+ * refers to variable {@code max} of the object in variable {@code pool} of the object in variable {@code db} of data class. The fields,
+ * setter methods and default constructors along the path are looked up once when the usage expression is compiled, so binding a value only
+ * walks these arrays. An intermediate object which is null is created by its default constructor and set in its parent, so it is created at
+ * most once per parse and shared by all the variables under it
+ *
+ * @author himanshu_shekhar
+ */
+class BindingPath {
+    private final Field[] parentFields;
+    private final MemberInvoker[] parentSetterInvokers;
+    private final MemberInvoker[] parentConstructorInvokers;
+    private final Method setterMethod;
+    private final MemberInvoker setterInvoker;
+    private final Field field;
+    private final Class<?> fieldType;
+
+    /**
+     *
+     * @param dataClass The data class which will keep the values available in command line arguments
+     * @param usageToken The usage token whose variable is bound
+     * @throws IllegalArgumentException If any field, setter method or default constructor along the path could not be found
+     */
+    BindingPath(Class<?> dataClass, UsageToken usageToken) {
+        String[] names = usageToken.getDataVariableName().split("\\.");
+        parentFields = new Field[names.length - 1];
+        parentSetterInvokers = new MemberInvoker[names.length - 1];
+        parentConstructorInvokers = new MemberInvoker[names.length - 1];
+
+        Class<?> parentClass = dataClass;
+        for (int index = 0; index < parentFields.length; index++) {
+            Field parentField = getDeclaredField(parentClass, names[index]);
+            parentField.setAccessible(true);
+            parentFields[index] = parentField;
+            parentSetterInvokers[index] = MemberInvoker.forSetterMethod(getSetterMethod(parentClass, names[index], parentField.getType()));
+            parentConstructorInvokers[index] = MemberInvoker.forConstructor(getDefaultConstructor(parentField.getType()));
+            parentClass = parentField.getType();
+        }
+
+        String name = names[names.length - 1];
+        this.field = getDeclaredField(parentClass, name);
+        this.field.setAccessible(true);
+        this.fieldType = field.getType();
+        this.setterMethod = getSetterMethod(parentClass, name, fieldType);
+        this.setterInvoker = MemberInvoker.forSetterMethod(setterMethod);
+    }
+
+    private static Field getDeclaredField(Class<?> declaringClass, String name) {
+        try {
+            return declaringClass.getDeclaredField(name);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalArgumentException("Cannot find variable " + declaringClass.getName() + ":" + name, e);
+        }
+    }
+
+    private static Method getSetterMethod(Class<?> declaringClass, String name, Class<?> type) {
+        String setterMethodName = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        try {
+            Method method = declaringClass.getDeclaredMethod(setterMethodName, type);
+            method.setAccessible(true);
+            return method;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("Cannot find method " + declaringClass.getName() + ":" + setterMethodName, e);
+        }
+    }
+
+    private static Constructor<?> getDefaultConstructor(Class<?> type) {
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("Cannot find default constructor of " + type.getName() + " to create nested object", e);
+        }
+    }
+
+    /**
+     *
+     * @return The setter method of the variable, declared in the class of its parent object
+     */
+    Method getSetterMethod() {
+        return setterMethod;
+    }
+
+    /**
+     *
+     * @param dataClassInstance Instance of data class to bind the value in
+     * @param value The value of the variable
+     */
+    void bind(Object dataClassInstance, Object value) throws IllegalAccessException, InvocationTargetException, InstantiationException {
+        Object parent = dataClassInstance;
+        for (int index = 0; index < parentFields.length; index++) {
+            Object child = parentFields[index].get(parent);
+            if (child == null) {
+                child = parentConstructorInvokers[index].newInstance();
+                parentSetterInvokers[index].invokeSetter(parent, child);
+            }
+            parent = child;
+        }
+        setterInvoker.invokeSetter(parent, value);
+    }
+
+    /**
+     *
+     * @param dataClassInstance Instance of data class to look for the objects along the path in
+     * @return If no intermediate object along the path is null, so that the variable can be bound without creating any object
+     */
+    boolean isPathPresent(Object dataClassInstance) throws IllegalAccessException {
+        Object parent = dataClassInstance;
+        for (int index = 0; index < parentFields.length && parent != null; index++) {
+            parent = parentFields[index].get(parent);
+        }
+        return parent != null;
+    }
+
+    /**
+     *
+     * @param dataClassInstance Instance of data class to read the value from
+     * @return Value of the variable, or default value of its type if any object along the path is null
+     */
+    Object getValue(Object dataClassInstance) throws IllegalAccessException {
+        Object parent = dataClassInstance;
+        for (int index = 0; index < parentFields.length && parent != null; index++) {
+            parent = parentFields[index].get(parent);
+        }
+        if (parent == null) {
+            // Default value of a primitive type is the element of a new array
+            return fieldType.isPrimitive() ? Array.get(Array.newInstance(fieldType, 1), 0) : null;
+        }
+        return field.get(parent);
+    }
+}
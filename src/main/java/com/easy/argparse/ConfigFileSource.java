@@ -0,0 +1,262 @@
+package com.easy.argparse;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * This thread-safe class provides values from a file of {@code key=value} lines, e.g. defaults shared by many tools. The file is memory
+ * mapped and indexed once by the hash of its keys, without creating any {@code String}, so a parser looks up and decodes only the values of
+ * its own options instead of loading every entry like {@link java.util.Properties} does <br>
+ * Below format, a subset of that of properties files, is accepted in UTF-8:
+ * <ul>
+ *    <li>Lines starting with {@code #} or {@code !} are comments, blank lines are ignored</li>
+ *    <li>Key ends at the first {@code =}, {@code :} or whitespace, and value is the rest of the line, trimmed</li>
+ *    <li>A key present more than once takes the last value</li>
+ *    <li>Escapes and continuation lines are not supported</li>
+ * </ul>
+ * The file is read as it was when this instance was created, create a new instance to see any change
+ *
+ * @author himanshu_shekhar
+ */
+public class ConfigFileSource {
+    private static final String UTF_8 = "UTF-8";
+
+    private final File file;
+    private final MappedByteBuffer buffer;
+    private final int[] keyStarts;
+    private final int[] keyLengths;
+    private final int[] valueStarts;
+    private final int[] valueLengths;
+    private final int[] slots;
+    private final int entryCount;
+
+    /**
+     *
+     * @param file The file to read the values from
+     * @throws IOException If the file could not be read
+     */
+    public ConfigFileSource(File file) throws IOException {
+        this.file = file;
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = randomAccessFile.getChannel();
+            // Mapping stays valid after the channel is closed
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } finally {
+            randomAccessFile.close();
+        }
+
+        EntryScanner entryScanner = new EntryScanner(buffer);
+        entryScanner.scan();
+        this.keyStarts = entryScanner.keyStarts;
+        this.keyLengths = entryScanner.keyLengths;
+        this.valueStarts = entryScanner.valueStarts;
+        this.valueLengths = entryScanner.valueLengths;
+        this.entryCount = entryScanner.count;
+        this.slots = buildSlots();
+    }
+
+    /*
+    Open addressing table of entry index + 1, so that 0 marks an empty slot. A later entry with the same key replaces the earlier one
+    */
+    private int[] buildSlots() {
+        int capacity = 16;
+        while (capacity < entryCount * 2) {
+            capacity <<= 1;
+        }
+        int[] table = new int[capacity];
+        for (int entry = 0; entry < entryCount; entry++) {
+            int slot = hash(keyStarts[entry], keyLengths[entry]) & (capacity - 1);
+            while (table[slot] != 0 && !keyEquals(table[slot] - 1, entry)) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            table[slot] = entry + 1;
+        }
+        return table;
+    }
+
+    /**
+     *
+     * @param key The key to look up
+     * @return Value of given key, or null if the file has no such key
+     */
+    public String getValue(String key) {
+        byte[] keyBytes;
+        try {
+            keyBytes = key.getBytes(UTF_8);
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException("Cannot encode key " + key + " (" + e.getMessage() + ")", e);
+        }
+        int hash = 0x811c9dc5;
+        for (byte keyByte : keyBytes) {
+            hash = (hash ^ (keyByte & 0xff)) * 0x01000193;
+        }
+
+        int slot = hash & (slots.length - 1);
+        while (slots[slot] != 0) {
+            int entry = slots[slot] - 1;
+            if (keyEquals(entry, keyBytes)) {
+                return decode(valueStarts[entry], valueLengths[entry]);
+            }
+            slot = (slot + 1) & (slots.length - 1);
+        }
+        return null;
+    }
+
+    /**
+     *
+     * @return Number of lines with a key in the file, including keys present more than once
+     */
+    public int size() {
+        return entryCount;
+    }
+
+    /**
+     *
+     * @return The file the values are read from
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /*
+    FNV-1a hash of the bytes, the same as computed for a key being looked up
+    */
+    private int hash(int start, int length) {
+        int hash = 0x811c9dc5;
+        for (int index = start; index < start + length; index++) {
+            hash = (hash ^ (buffer.get(index) & 0xff)) * 0x01000193;
+        }
+        return hash;
+    }
+
+    private boolean keyEquals(int entry, int otherEntry) {
+        if (keyLengths[entry] != keyLengths[otherEntry]) {
+            return false;
+        }
+        for (int index = 0; index < keyLengths[entry]; index++) {
+            if (buffer.get(keyStarts[entry] + index) != buffer.get(keyStarts[otherEntry] + index)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean keyEquals(int entry, byte[] keyBytes) {
+        if (keyLengths[entry] != keyBytes.length) {
+            return false;
+        }
+        for (int index = 0; index < keyBytes.length; index++) {
+            if (buffer.get(keyStarts[entry] + index) != keyBytes[index]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String decode(int start, int length) {
+        byte[] bytes = new byte[length];
+        for (int index = 0; index < length; index++) {
+            bytes[index] = buffer.get(start + index);
+        }
+        try {
+            return new String(bytes, UTF_8);
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException("Cannot decode value in " + file + " (" + e.getMessage() + ")", e);
+        }
+    }
+
+    /*
+    Finds the offsets of keys and values in a single pass over the bytes, using absolute reads so the shared buffer is never repositioned
+    */
+    private static class EntryScanner {
+        private final MappedByteBuffer buffer;
+        private final int limit;
+        private int[] keyStarts = new int[64];
+        private int[] keyLengths = new int[64];
+        private int[] valueStarts = new int[64];
+        private int[] valueLengths = new int[64];
+        private int count;
+
+        EntryScanner(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+            this.limit = buffer.limit();
+        }
+
+        void scan() {
+            int index = 0;
+            while (index < limit) {
+                int lineEnd = index;
+                while (lineEnd < limit && !isLineEnd(buffer.get(lineEnd))) {
+                    lineEnd++;
+                }
+                scanLine(index, lineEnd);
+                index = lineEnd + 1;
+            }
+        }
+
+        private void scanLine(int start, int end) {
+            int keyStart = skipWhitespace(start, end);
+            if (keyStart == end || buffer.get(keyStart) == '#' || buffer.get(keyStart) == '!') {
+                return;
+            }
+            int keyEnd = keyStart;
+            while (keyEnd < end && !isSeparator(buffer.get(keyEnd)) && !isWhitespace(buffer.get(keyEnd))) {
+                keyEnd++;
+            }
+            int valueStart = skipWhitespace(keyEnd, end);
+            if (valueStart < end && isSeparator(buffer.get(valueStart))) {
+                valueStart = skipWhitespace(valueStart + 1, end);
+            }
+            int valueEnd = end;
+            while (valueEnd > valueStart && isWhitespace(buffer.get(valueEnd - 1))) {
+                valueEnd--;
+            }
+            add(keyStart, keyEnd - keyStart, valueStart, valueEnd - valueStart);
+        }
+
+        private void add(int keyStart, int keyLength, int valueStart, int valueLength) {
+            if (count == keyStarts.length) {
+                keyStarts = grow(keyStarts);
+                keyLengths = grow(keyLengths);
+                valueStarts = grow(valueStarts);
+                valueLengths = grow(valueLengths);
+            }
+            keyStarts[count] = keyStart;
+            keyLengths[count] = keyLength;
+            valueStarts[count] = valueStart;
+            valueLengths[count] = valueLength;
+            count++;
+        }
+
+        private static int[] grow(int[] values) {
+            int[] grownValues = new int[values.length * 2];
+            System.arraycopy(values, 0, grownValues, 0, values.length);
+            return grownValues;
+        }
+
+        private int skipWhitespace(int start, int end) {
+            int index = start;
+            while (index < end && isWhitespace(buffer.get(index))) {
+                index++;
+            }
+            return index;
+        }
+
+        private static boolean isLineEnd(byte b) {
+            return b == '\n' || b == '\r';
+        }
+
+        private static boolean isSeparator(byte b) {
+            return b == '=' || b == ':';
+        }
+
+        private static boolean isWhitespace(byte b) {
+            return b == ' ' || b == '\t' || b == '\f';
+        }
+    }
+}
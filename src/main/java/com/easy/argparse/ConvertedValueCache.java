@@ -0,0 +1,254 @@
+package com.easy.argparse;
+
+import java.lang.reflect.Array;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This thread-safe class keeps the values converted from command line arguments so that the same text need not be converted again by later
+ * parses. Entries are evicted in least recently used order once either the number of entries or the total weight (number of characters of
+ * the cached text) exceeds the specified limit <br>
+ * By default values of every usage token are cached. If any type or variable name is added using {@link #addCachedType(Class)} or
+ * {@link #addCachedVariable(String)}, then only the matching usage tokens are cached <br>
+ * Cached arrays are copied before being returned, so that changes made to a parsed array do not affect later parses. The same instance can
+ * be shared by several {@link ArgumentParser} instances
+ *
+ * @author himanshu_shekhar
+ */
+public class ConvertedValueCache {
+    private static final Logger logger = LoggerFactory.getLogger(ConvertedValueCache.class);
+
+    private final int maximumSize;
+    private final long maximumWeight;
+    private final Map<CacheKey, Object> valueMap;
+    private final Set<Class<?>> cachedTypes;
+    private final Set<String> cachedVariables;
+    private final AtomicLong hitCount;
+    private final AtomicLong missCount;
+    private final AtomicLong evictionCount;
+
+    private long weight;
+
+    /**
+     *
+     * @param maximumSize The maximum number of values to keep
+     * @throws IllegalArgumentException If maximum size is not positive
+     */
+    public ConvertedValueCache(int maximumSize) {
+        this(maximumSize, Long.MAX_VALUE);
+    }
+
+    /**
+     *
+     * @param maximumSize The maximum number of values to keep
+     * @param maximumWeight The maximum number of characters of text, summed over all values kept
+     * @throws IllegalArgumentException If maximum size or weight is not positive
+     */
+    public ConvertedValueCache(int maximumSize, long maximumWeight) {
+        if (maximumSize <= 0 || maximumWeight <= 0) {
+            throw new IllegalArgumentException("Cache size (" + maximumSize + ") and weight (" + maximumWeight + ") must be positive");
+        }
+        this.maximumSize = maximumSize;
+        this.maximumWeight = maximumWeight;
+        this.valueMap = new LinkedHashMap<CacheKey, Object>(16, 0.75f, true);
+        this.cachedTypes = new CopyOnWriteArraySet<Class<?>>();
+        this.cachedVariables = new CopyOnWriteArraySet<String>();
+        this.hitCount = new AtomicLong();
+        this.missCount = new AtomicLong();
+        this.evictionCount = new AtomicLong();
+    }
+
+    /**
+     *
+     * @param type Values of usage tokens mapped to a field of this type will be cached
+     */
+    public void addCachedType(Class<?> type) {
+        cachedTypes.add(type);
+    }
+
+    /**
+     *
+     * @param dataVariableName Values of usage token with this data variable name will be cached, e.g. {@code minute} in usage expression
+     * {@code -m minute [-s seconds]}
+     */
+    public void addCachedVariable(String dataVariableName) {
+        cachedVariables.add(dataVariableName);
+    }
+
+    /**
+     *
+     * @param usageToken The usage token whose value is to be converted
+     * @param fieldType Type of the field mapped to the usage token
+     * @return If value of given usage token should be looked up in this cache
+     */
+    public boolean isCached(UsageToken usageToken, Class<?> fieldType) {
+        if (cachedTypes.isEmpty() && cachedVariables.isEmpty()) {
+            return true;
+        }
+        return cachedTypes.contains(fieldType) || cachedVariables.contains(usageToken.getDataVariableName());
+    }
+
+    /**
+     *
+     * @param fieldType Type of the converted value
+     * @param arrayDelimiter The delimiter used to separate elements in array
+     * @param text The text as available in command line argument
+     * @return The cached value, or null if there is none
+     */
+    public Object get(Class<?> fieldType, String arrayDelimiter, String text) {
+        return get(fieldType, arrayDelimiter, text, null);
+    }
+
+    /*
+    Qualifier keeps the values apart which are converted the same way but checked differently, e.g. because of constraints of the field.
+    Qualifiers are compared by equals, so that equal constraints of different parsers share the values
+    */
+    Object get(Class<?> fieldType, String arrayDelimiter, String text, Object qualifier) {
+        Object value;
+        synchronized (valueMap) {
+            value = valueMap.get(new CacheKey(fieldType, arrayDelimiter, text, qualifier));
+        }
+        if (value == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        return copyIfArray(value);
+    }
+
+    /**
+     *
+     * @param fieldType Type of the converted value
+     * @param arrayDelimiter The delimiter used to separate elements in array
+     * @param text The text as available in command line argument
+     * @param value The value converted from {@code text}
+     */
+    public void put(Class<?> fieldType, String arrayDelimiter, String text, Object value) {
+        put(fieldType, arrayDelimiter, text, null, value);
+    }
+
+    void put(Class<?> fieldType, String arrayDelimiter, String text, Object qualifier, Object value) {
+        CacheKey key = new CacheKey(fieldType, arrayDelimiter, text, qualifier);
+        Object copy = copyIfArray(value);
+        synchronized (valueMap) {
+            if (valueMap.put(key, copy) == null) {
+                weight += text.length();
+            }
+            evict();
+        }
+    }
+
+    /*
+    Iteration order of the access ordered map is least recently used first
+    */
+    private void evict() {
+        Iterator<CacheKey> iterator = valueMap.keySet().iterator();
+        while ((valueMap.size() > maximumSize || weight > maximumWeight) && iterator.hasNext()) {
+            CacheKey eldest = iterator.next();
+            iterator.remove();
+            weight -= eldest.text.length();
+            evictionCount.incrementAndGet();
+            logger.trace("Evicted cached value for: {}", eldest.text);
+        }
+    }
+
+    /**
+     * Remove all the cached values. The hit, miss and eviction counts are not reset
+     */
+    public void clear() {
+        synchronized (valueMap) {
+            valueMap.clear();
+            weight = 0;
+        }
+    }
+
+    /**
+     *
+     * @return Number of values currently cached
+     */
+    public int size() {
+        synchronized (valueMap) {
+            return valueMap.size();
+        }
+    }
+
+    /**
+     *
+     * @return Number of times a value was found in the cache
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     *
+     * @return Number of times a value was not found in the cache, and hence had to be converted
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     *
+     * @return Number of values removed to keep the cache within its size and weight
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    private static Object copyIfArray(Object value) {
+        if (!value.getClass().isArray()) {
+            return value;
+        }
+        int length = Array.getLength(value);
+        Object copy = Array.newInstance(value.getClass().getComponentType(), length);
+        System.arraycopy(value, 0, copy, 0, length);
+        return copy;
+    }
+
+    private static class CacheKey {
+        private final Class<?> fieldType;
+        private final String arrayDelimiter;
+        private final String text;
+        private final Object qualifier;
+
+        CacheKey(Class<?> fieldType, String arrayDelimiter, String text, Object qualifier) {
+            this.fieldType = fieldType;
+            // The delimiter matters only for arrays, so leave it out otherwise to share values among parsers
+            this.arrayDelimiter = fieldType.isArray() ? arrayDelimiter : null;
+            this.text = text;
+            this.qualifier = qualifier;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 7;
+            hash = 59 * hash + fieldType.hashCode();
+            hash = 59 * hash + (arrayDelimiter != null ? arrayDelimiter.hashCode() : 0);
+            hash = 59 * hash + text.hashCode();
+            hash = 59 * hash + (qualifier != null ? qualifier.hashCode() : 0);
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final CacheKey other = (CacheKey) obj;
+
+            return fieldType == other.fieldType && text.equals(other.text)
+                    && (qualifier == null ? other.qualifier == null : qualifier.equals(other.qualifier))
+                    && (arrayDelimiter == null ? other.arrayDelimiter == null : arrayDelimiter.equals(other.arrayDelimiter));
+        }
+    }
+}
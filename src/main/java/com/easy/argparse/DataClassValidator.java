@@ -1,7 +1,11 @@
 package com.easy.argparse;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -30,6 +34,25 @@ public class DataClassValidator {
         Double.class
     }));
     
+    private static final Set<Class<?>> ALLOWED_OPERAND_FIELD_TYPES = new HashSet<Class<?>>(Arrays.asList(new Class<?>[]
+    {
+        List.class,
+        Collection.class,
+        Iterable.class
+    }));
+    
+    private static final Set<Class<?>> ALLOWED_COLLECTION_FIELD_TYPES = new HashSet<Class<?>>(Arrays.asList(new Class<?>[]
+    {
+        List.class,
+        Set.class
+    }));
+    
+    private static final Set<Class<?>> ALLOWED_COLLECTION_ELEMENT_TYPES = new HashSet<Class<?>>(Arrays.asList(new Class<?>[]
+    {
+        Integer.class,
+        Long.class
+    }));
+    
     private final Class<?> dataClass;
 
     /**
@@ -50,9 +73,15 @@ public class DataClassValidator {
             String variableName = usageToken.getDataVariableName();
             logger.trace("Checking data class for variable: {}", variableName);
             try{
-                Field field = dataClass.getDeclaredField(variableName);
+                Field field = UsageToken.findField(dataClass, variableName);
                 logger.trace("Found variable {} in the data class", variableName);
-                validateFieldType(field.getType());
+                if(usageToken.isOperand()){
+                    validateOperandFieldType(field);
+                }else if(isCollection(field.getType())){
+                    validateCollectionFieldType(field);
+                }else{
+                    validateFieldType(field.getType());
+                }
             }catch(NoSuchFieldException e){
                 logger.warn("Got exception while looking for field in data class: {}", e);
                 throw new IllegalArgumentException("Field " + variableName + " not present in class " + dataClass.getCanonicalName() + 
@@ -65,6 +94,39 @@ public class DataClassValidator {
         }
     }
     
+    /*
+    Operands are kept as a list of strings, so the element type has to accept a String; a raw type accepts anything
+    */
+    private void validateOperandFieldType(Field field){
+        Class<?> fieldType = field.getType();
+        logger.trace("Checking validity of operand field type: {}", fieldType.getCanonicalName());
+        if(!ALLOWED_OPERAND_FIELD_TYPES.contains(fieldType)){
+            throw new IllegalArgumentException("Field type " + fieldType.getCanonicalName() + " is not allowed for operands, use "
+                    + List.class.getCanonicalName());
+        }
+        Class<?> elementType = getElementType(field);
+        boolean rawType = field.getGenericType() instanceof Class;
+        if(!rawType && (elementType == null || !elementType.isAssignableFrom(String.class))){
+            throw new IllegalArgumentException("Field type " + field.getGenericType() + " of " + field.getName() + " is not allowed for operands, "
+                    + "use List of String");
+        }
+    }
+    
+    private void validateCollectionFieldType(Field field){
+        Class<?> fieldType = field.getType();
+        logger.trace("Checking validity of collection field type: {}", fieldType.getCanonicalName());
+        Class<?> elementType = getElementType(field);
+        if(fieldType == EnumSet.class){
+            if(elementType == null || !elementType.isEnum()){
+                throw new IllegalArgumentException("Field type " + fieldType.getCanonicalName() + " of " + field.getName() 
+                        + " must be declared with an enum type");
+            }
+        }else if(!ALLOWED_COLLECTION_FIELD_TYPES.contains(fieldType) || !ALLOWED_COLLECTION_ELEMENT_TYPES.contains(elementType)){
+            throw new IllegalArgumentException("Field type " + field.getGenericType() + " of " + field.getName() + " is not allowed, use " 
+                    + "List or Set of Integer or Long");
+        }
+    }
+    
     private void validateFieldType(Class<?> fieldType){
         logger.trace("Checking validity of field type: {}", fieldType.getCanonicalName());
         if(fieldType.isArray()){
@@ -73,4 +135,36 @@ public class DataClassValidator {
             throw new IllegalArgumentException("Field type " + fieldType.getCanonicalName() + " is not allowed");
         }
     }
+    
+    /**
+     * 
+     * @param fieldType Type of a field in data class
+     * @return If the field keeps a collection of values, i.e. {@code EnumSet}, {@code List} or {@code Set}
+     */
+    static boolean isCollection(Class<?> fieldType){
+        return Collection.class.isAssignableFrom(fieldType);
+    }
+    
+    /**
+     * 
+     * @param field A field in data class
+     * @return Component type of an array, type argument of a collection (or null if it is not declared), or type of any other field
+     */
+    static Class<?> getElementType(Field field){
+        Class<?> fieldType = field.getType();
+        if(fieldType.isArray()){
+            return fieldType.getComponentType();
+        }
+        if(!isCollection(fieldType)){
+            return fieldType;
+        }
+        Type genericType = field.getGenericType();
+        if(genericType instanceof ParameterizedType){
+            Type[] typeArguments = ((ParameterizedType) genericType).getActualTypeArguments();
+            if(typeArguments.length == 1 && typeArguments[0] instanceof Class){
+                return (Class<?>) typeArguments[0];
+            }
+        }
+        return null;
+    }
 }
@@ -0,0 +1,129 @@
+package com.easy.argparse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This immutable class resolves the constants of an enum type by name, using lookup structures built once when the parser is compiled
+ * instead of looking up the constant by {@link Enum#valueOf(Class, String)} for every value. A name is matched in below order:
+ * <ol>
+ *    <li>Exactly, e.g. {@code HIGH}</li>
+ *    <li>Ignoring case, e.g. {@code high}</li>
+ *    <li>As a prefix (ignoring case) of only one constant, e.g. {@code hi}</li>
+ * </ol>
+ * Case is ignored by folding one character at a time while walking a trie of the names, so the given name is neither copied nor lower-cased.
+ * A name which cannot be resolved fails with the constants it could have meant
+ *
+ * @author himanshu_shekhar
+ */
+class EnumResolver {
+    private final Class<?> enumType;
+    private final Map<String, Enum<?>> constantMap;
+    private final Node root;
+
+    /**
+     *
+     * @param enumType The enum type whose constants are resolved
+     */
+    EnumResolver(Class<?> enumType) {
+        this.enumType = enumType;
+        Object[] constants = enumType.getEnumConstants();
+        this.constantMap = new HashMap<String, Enum<?>>(constants.length * 2);
+        this.root = new Node();
+        for (Object constant : constants) {
+            Enum<?> enumConstant = (Enum<?>) constant;
+            constantMap.put(enumConstant.name(), enumConstant);
+            root.add(enumConstant, 0);
+        }
+    }
+
+    /**
+     *
+     * @param name Name of the constant as available in command line argument
+     * @return The constant matching given name
+     * @throws IllegalArgumentException If no constant, or more than one constant, matches given name
+     */
+    Enum<?> resolve(String name) {
+        Enum<?> constant = constantMap.get(name);
+        if (constant != null) {
+            return constant;
+        }
+        // Empty name is a prefix of every constant, which is no choice even if the enum has a single constant
+        if (name.length() == 0) {
+            throw new IllegalArgumentException("No constant () in enum " + enumType.getCanonicalName() + ", expected one of "
+                    + root.subtreeConstants);
+        }
+
+        Node node = root;
+        for (int index = 0; index < name.length() && node != null; index++) {
+            node = node.getChild(fold(name.charAt(index)));
+        }
+        if (node == null) {
+            throw new IllegalArgumentException("No constant (" + name + ") in enum " + enumType.getCanonicalName() + ", expected one of "
+                    + root.subtreeConstants);
+        }
+        if (node.terminalConstants.size() == 1) {
+            return node.terminalConstants.get(0);
+        }
+        List<Enum<?>> candidates = node.terminalConstants.isEmpty() ? node.subtreeConstants : node.terminalConstants;
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        throw new IllegalArgumentException("Constant (" + name + ") is ambiguous in enum " + enumType.getCanonicalName() + ", it matches "
+                + candidates);
+    }
+
+    /*
+    Same folding as String.regionMatches(true, ...) does, so that e.g. title case characters match as well
+    */
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /*
+    Children are kept in parallel arrays of folded characters and nodes, searched linearly as names use only a few distinct characters at a
+    position. Nodes are only modified while the resolver is being built
+    */
+    private static class Node {
+        private char[] labels = new char[0];
+        private Node[] children = new Node[0];
+        private final List<Enum<?>> terminalConstants = new ArrayList<Enum<?>>(1);
+        private final List<Enum<?>> subtreeConstants = new ArrayList<Enum<?>>(1);
+
+        void add(Enum<?> constant, int depth) {
+            subtreeConstants.add(constant);
+            String name = constant.name();
+            if (depth == name.length()) {
+                terminalConstants.add(constant);
+                return;
+            }
+
+            char label = fold(name.charAt(depth));
+            Node child = getChild(label);
+            if (child == null) {
+                child = new Node();
+                int count = labels.length;
+                char[] newLabels = new char[count + 1];
+                Node[] newChildren = new Node[count + 1];
+                System.arraycopy(labels, 0, newLabels, 0, count);
+                System.arraycopy(children, 0, newChildren, 0, count);
+                newLabels[count] = label;
+                newChildren[count] = child;
+                labels = newLabels;
+                children = newChildren;
+            }
+            child.add(constant, depth + 1);
+        }
+
+        Node getChild(char label) {
+            for (int index = 0; index < labels.length; index++) {
+                if (labels[index] == label) {
+                    return children[index];
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.easy.argparse;
+
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * This thread-safe class keeps a copy of the environment variables and system properties, taken once and indexed by name, from which
+ * {@link Fallback} values are resolved. Changes made to the environment or system properties afterwards are seen only after
+ * {@link #refresh()}. Parsers resolve the fallback values again only when the snapshot has been refreshed, so a parse does not look up the
+ * environment at all
+ *
+ * @author himanshu_shekhar
+ */
+public class EnvironmentSnapshot {
+    private static final EnvironmentSnapshot defaultSnapshot = new EnvironmentSnapshot();
+
+    private volatile State state;
+
+    /**
+     * Take a snapshot of the current environment variables and system properties
+     */
+    public EnvironmentSnapshot() {
+        this.state = new State(0);
+    }
+
+    /**
+     *
+     * @return The snapshot used by parsers unless specified otherwise, taken when this class is loaded
+     */
+    public static EnvironmentSnapshot getDefault() {
+        return defaultSnapshot;
+    }
+
+    /**
+     * Take a new snapshot of the environment variables and system properties, which parses started afterwards use
+     */
+    public synchronized void refresh() {
+        state = new State(state.generation + 1);
+    }
+
+    /**
+     *
+     * @return Number of times the snapshot has been refreshed, which tells the parsers to resolve their fallback values again
+     */
+    long getGeneration() {
+        return state.generation;
+    }
+
+    /**
+     *
+     * @param name Name of the environment variable
+     * @return Value of the environment variable when the snapshot was taken, or null if it was not set
+     */
+    public String getEnvironmentVariable(String name) {
+        return state.environment.get(name);
+    }
+
+    /**
+     *
+     * @param name Name of the system property
+     * @return Value of the system property when the snapshot was taken, or null if it was not set
+     */
+    public String getProperty(String name) {
+        return state.properties.get(name);
+    }
+
+    /*
+    Environment and properties are replaced together, with the generation which identifies them
+    */
+    private static class State {
+        private final long generation;
+        private final Map<String, String> environment;
+        private final Map<String, String> properties;
+
+        State(long generation) {
+            this.generation = generation;
+            this.environment = new HashMap<String, String>(System.getenv());
+            Properties systemProperties = System.getProperties();
+            this.properties = new HashMap<String, String>();
+            Enumeration<?> names = systemProperties.propertyNames();
+            while (names.hasMoreElements()) {
+                Object name = names.nextElement();
+                if (name instanceof String) {
+                    properties.put((String) name, systemProperties.getProperty((String) name));
+                }
+            }
+        }
+    }
+}
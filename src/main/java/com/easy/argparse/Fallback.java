@@ -0,0 +1,41 @@
+package com.easy.argparse;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Names the environment variable and system property from which the value of a field in the data class is taken, if its option is not
+ * available in command line arguments. For example, {@code @Fallback(environment = "MINUTE", property = "app.minute") private int minute;}
+ * <br>
+ * System property takes precedence over environment variable, and both over the {@link ConfigFileSource} set on the parser. Both are read
+ * from an {@link EnvironmentSnapshot}, not from the live environment. The value of a boolean option is parsed by
+ * {@link Boolean#parseBoolean(String)}
+ *
+ * @author himanshu_shekhar
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Fallback {
+
+    /**
+     *
+     * @return Name of the environment variable, or empty if none
+     */
+    String environment() default "";
+
+    /**
+     *
+     * @return Name of the system property, or empty if none
+     */
+    String property() default "";
+
+    /**
+     *
+     * @return Key in the {@link ConfigFileSource}, or empty to use the data variable name, e.g. {@code db.host}
+     */
+    String key() default "";
+}
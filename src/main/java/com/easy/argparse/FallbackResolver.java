@@ -0,0 +1,158 @@
+package com.easy.argparse;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This thread-safe class adds the {@link Fallback} values and the values of a {@link ConfigFileSource} to the values available in command
+ * line arguments, for the options which are not available there. The fallback names and file keys of the usage tokens are read from the data
+ * class once when the usage expression is compiled, and their values are merged into a single value per option (system property over
+ * environment variable over file) only when the {@link EnvironmentSnapshot} has been refreshed or the file replaced since the last parse
+ *
+ * @author himanshu_shekhar
+ */
+class FallbackResolver {
+    private volatile UsageToken[] usageTokens;
+    private volatile Fallback[] fallbacks;
+    private volatile String[] fileKeys;
+    private volatile EnvironmentSnapshot environmentSnapshot;
+    private volatile ConfigFileSource configFile;
+    private volatile ResolvedValues resolvedValues;
+
+    FallbackResolver() {
+        this.usageTokens = new UsageToken[0];
+        this.fallbacks = new Fallback[0];
+        this.fileKeys = new String[0];
+        this.environmentSnapshot = EnvironmentSnapshot.getDefault();
+    }
+
+    /**
+     *
+     * @param dataClass The data class which will keep the values available in command line arguments
+     * @param allUsageTokens All the usage tokens of usage expression
+     */
+    void initialize(Class<?> dataClass, List<UsageToken> allUsageTokens) {
+        List<UsageToken> optionUsageTokens = new ArrayList<UsageToken>();
+        List<Fallback> tokenFallbacks = new ArrayList<Fallback>();
+        List<String> tokenFileKeys = new ArrayList<String>();
+        for (UsageToken usageToken : allUsageTokens) {
+            if (usageToken.isOperand()) {
+                continue;
+            }
+            Field field = usageToken.getMappedField(dataClass);
+            Fallback fallback = field.getAnnotation(Fallback.class);
+            optionUsageTokens.add(usageToken);
+            tokenFallbacks.add(fallback);
+            tokenFileKeys.add(fallback != null && fallback.key().length() > 0 ? fallback.key() : usageToken.getDataVariableName());
+        }
+        fallbacks = tokenFallbacks.toArray(new Fallback[tokenFallbacks.size()]);
+        fileKeys = tokenFileKeys.toArray(new String[tokenFileKeys.size()]);
+        usageTokens = optionUsageTokens.toArray(new UsageToken[optionUsageTokens.size()]);
+        resolvedValues = null;
+    }
+
+    void setEnvironmentSnapshot(EnvironmentSnapshot environmentSnapshot) {
+        this.environmentSnapshot = environmentSnapshot;
+    }
+
+    EnvironmentSnapshot getEnvironmentSnapshot() {
+        return environmentSnapshot;
+    }
+
+    void setConfigFile(ConfigFileSource configFile) {
+        this.configFile = configFile;
+    }
+
+    ConfigFileSource getConfigFile() {
+        return configFile;
+    }
+
+    /**
+     *
+     * @param availableValues The values available in command line arguments, to which the fallback values are added
+     */
+    void apply(AvailableValues availableValues) {
+        if (usageTokens.length == 0) {
+            return;
+        }
+        ResolvedValues resolved = getResolvedValues();
+        for (int index = 0; index < resolved.usageTokens.length; index++) {
+            UsageToken usageToken = resolved.usageTokens[index];
+            if (availableValues.getValue(usageToken) == null) {
+                availableValues.put(usageToken, resolved.values[index]);
+            }
+        }
+    }
+
+    /**
+     *
+     * @return An object which is the same as long as the same fallback values are added, i.e. until the snapshot is refreshed or replaced or
+     * the file is replaced
+     */
+    Object getState() {
+        return getResolvedValues();
+    }
+
+    /*
+    A race only resolves the values more than once
+    */
+    private ResolvedValues getResolvedValues() {
+        EnvironmentSnapshot snapshot = environmentSnapshot;
+        ConfigFileSource file = configFile;
+        ResolvedValues resolved = resolvedValues;
+        if (resolved == null || resolved.environmentSnapshot != snapshot || resolved.generation != snapshot.getGeneration()
+                || resolved.configFile != file) {
+            resolved = new ResolvedValues(snapshot, file, usageTokens, fallbacks, fileKeys);
+            resolvedValues = resolved;
+        }
+        return resolved;
+    }
+
+    /*
+    Merged values as per one generation of a snapshot and one file, keeping only the usage tokens which have a value
+    */
+    private static class ResolvedValues {
+        private final EnvironmentSnapshot environmentSnapshot;
+        private final long generation;
+        private final ConfigFileSource configFile;
+        private final UsageToken[] usageTokens;
+        private final String[] values;
+
+        ResolvedValues(EnvironmentSnapshot environmentSnapshot, ConfigFileSource configFile, UsageToken[] allUsageTokens,
+                Fallback[] fallbacks, String[] fileKeys) {
+            this.environmentSnapshot = environmentSnapshot;
+            this.generation = environmentSnapshot.getGeneration();
+            this.configFile = configFile;
+
+            List<UsageToken> resolvedUsageTokens = new ArrayList<UsageToken>();
+            List<String> resolvedValues = new ArrayList<String>();
+            for (int index = 0; index < allUsageTokens.length; index++) {
+                String value = resolve(environmentSnapshot, fallbacks[index]);
+                if (value == null && configFile != null) {
+                    value = configFile.getValue(fileKeys[index]);
+                }
+                if (value != null) {
+                    resolvedUsageTokens.add(allUsageTokens[index]);
+                    resolvedValues.add(value);
+                }
+            }
+            this.usageTokens = resolvedUsageTokens.toArray(new UsageToken[resolvedUsageTokens.size()]);
+            this.values = resolvedValues.toArray(new String[resolvedValues.size()]);
+        }
+
+        private static String resolve(EnvironmentSnapshot environmentSnapshot, Fallback fallback) {
+            String value = null;
+            if (fallback == null) {
+                return value;
+            }
+            if (fallback.property().length() > 0) {
+                value = environmentSnapshot.getProperty(fallback.property());
+            }
+            if (value == null && fallback.environment().length() > 0) {
+                value = environmentSnapshot.getEnvironmentVariable(fallback.environment());
+            }
+            return value;
+        }
+    }
+}
@@ -1,28 +1,47 @@
 package com.easy.argparse;
 
 import com.easy.core.utils.RegexUtil;
+import java.io.IOException;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * This thread safe class parses the command line arguments (as an array of {@code String}) and updates the data class
- * with available values
+ * with available values. Values available in the arguments of every parse are kept in a separate {@link AvailableValues}, so parses need no
+ * locking
  * 
  * @author himanshu_shekhar
  */
 public class FieldValueManager {
 
     private static final Logger logger = LoggerFactory.getLogger(FieldValueManager.class);
+    private static final String END_OF_OPTIONS = "--";
+    
+    /**
+     * Array values having at least these many characters are decoded in parallel, unless specified otherwise
+     */
+    public static final int DEFAULT_PARALLEL_DECODING_THRESHOLD = 1024 * 1024;
 
     private final Class<?> dataClass;
     private final UsageTokenManager usageTokenManager;
     private final String arrayDelimiter;
-    private final Map<UsageToken, String> valueMap;
+    private final ParallelArrayDecoder parallelArrayDecoder;
+    
+    private volatile int parallelDecodingThreshold;
+    private volatile ConvertedValueCache valueCache;
+    private volatile Map<UsageToken, ValueConstraint> constraintMap;
+    private volatile Map<UsageToken, Class<?>> fieldTypeMap;
+    private volatile Map<UsageToken, Class<?>> elementTypeMap;
+    private volatile Map<Class<?>, EnumResolver> enumResolverMap;
 
     /**
      * 
@@ -34,52 +53,258 @@ public class FieldValueManager {
         this.dataClass = dataClass;
         this.usageTokenManager = usageTokenManager;
         this.arrayDelimiter = arrayDelimiter;
-        this.valueMap = new ConcurrentHashMap<UsageToken, String>();
+        this.parallelArrayDecoder = new ParallelArrayDecoder(this);
+        this.parallelDecodingThreshold = DEFAULT_PARALLEL_DECODING_THRESHOLD;
+        this.constraintMap = Collections.emptyMap();
+        this.fieldTypeMap = Collections.emptyMap();
+        this.elementTypeMap = Collections.emptyMap();
+        this.enumResolverMap = Collections.emptyMap();
+    }
+    
+    /**
+     * Compile the constraints declared on the fields of data class, element types of collection fields and name tables of enum types for the
+     * usage tokens. Should be invoked after usage tokens are initialized and data class is validated
+     * 
+     * @throws IllegalArgumentException If a declared constraint does not apply to its field
+     */
+    public void initialize() {
+        Map<UsageToken, ValueConstraint> compiledConstraintMap = new HashMap<UsageToken, ValueConstraint>();
+        Map<UsageToken, Class<?>> compiledFieldTypeMap = new HashMap<UsageToken, Class<?>>();
+        Map<UsageToken, Class<?>> compiledElementTypeMap = new HashMap<UsageToken, Class<?>>();
+        Map<Class<?>, EnumResolver> compiledEnumResolverMap = new HashMap<Class<?>, EnumResolver>();
+        for (UsageToken usageToken : usageTokenManager.getUsageTokens()) {
+            if (usageToken.isOperand()) {
+                continue;
+            }
+            Field field = usageToken.getMappedField(dataClass);
+            compiledConstraintMap.put(usageToken, ValueConstraint.forField(field));
+            compiledFieldTypeMap.put(usageToken, field.getType());
+            Class<?> elementType = DataClassValidator.getElementType(field);
+            if (DataClassValidator.isCollection(field.getType())) {
+                compiledElementTypeMap.put(usageToken, elementType);
+            }
+            if (elementType != null && elementType.isEnum() && !compiledEnumResolverMap.containsKey(elementType)) {
+                compiledEnumResolverMap.put(elementType, new EnumResolver(elementType));
+            }
+        }
+        constraintMap = compiledConstraintMap;
+        fieldTypeMap = compiledFieldTypeMap;
+        elementTypeMap = compiledElementTypeMap;
+        enumResolverMap = compiledEnumResolverMap;
+    }
+
+    /**
+     * 
+     * @param parallelDecodingThreshold The minimum length (number of characters) of an array value which is decoded in parallel. Shorter values
+     * are decoded serially
+     * @throws IllegalArgumentException If given threshold is not positive
+     */
+    public void setParallelDecodingThreshold(int parallelDecodingThreshold) {
+        if (parallelDecodingThreshold <= 0) {
+            throw new IllegalArgumentException("Parallel decoding threshold must be positive (" + parallelDecodingThreshold + ")");
+        }
+        this.parallelDecodingThreshold = parallelDecodingThreshold;
+    }
+
+    int getParallelDecodingThreshold() {
+        return parallelDecodingThreshold;
     }
 
     /**
-     * Parse available values and keep a map of values available for corresponding option in usage
+     * 
+     * @param valueCache The cache to look up converted values in before converting them, or null to always convert the values
+     */
+    public void setValueCache(ConvertedValueCache valueCache) {
+        this.valueCache = valueCache;
+    }
+    
+    ConvertedValueCache getValueCache() {
+        return valueCache;
+    }
+
+    /**
+     * Parse available values and keep a map of values available for corresponding option in usage. If usage expression accepts operands,
+     * then the first argument which is neither an option nor its value, or all the arguments after {@code --}, are taken as operands
      * 
      * @param args Array of {@code String} corresponding to command line arguments
+     * @return The values available in the command line arguments
      */
-    public void updateAvailableValues(String[] args) {
-        logger.trace("Parsing the arguments for values");
+    public AvailableValues getAvailableValues(String[] args) {
+        return getAvailableValues(args, false);
+    }
+    
+    /**
+     * Same as {@link #getAvailableValues(String[])}, optionally passing through the arguments which are not recognized instead of failing
+     * 
+     * @param args Array of {@code String} corresponding to command line arguments
+     * @param passThrough If unknown options, arguments which are neither an option nor its value (unless taken as operands) and arguments
+     * after {@code --} (unless taken as operands) are kept as unrecognized
+     * @return The values available in the command line arguments
+     */
+    AvailableValues getAvailableValues(String[] args, boolean passThrough) {
+        try {
+            return getAvailableValues(new ArrayArgumentReader(args), passThrough);
+        } catch (IOException e) {
+            // Nothing is read from any stream for an array of arguments
+            throw new IllegalStateException("Cannot read arguments from array (" + e.getMessage() + ")", e);
+        }
+    }
+    
+    /**
+     * Scan the arguments for the values of given usage tokens only. Other options are skipped along with their values without being checked.
+     * As with a full parse, the last value of an option repeated in the arguments wins, so scanning cannot stop at the first value found. It
+     * stops only at {@code --} or, if usage expression accepts operands, at the first operand
+     * 
+     * @param args Array of {@code String} corresponding to command line arguments
+     * @param projectedUsageTokens The usage tokens whose values are required
+     * @return The text of last value found for each usage token, in the same order, {@code "true"} for an option without value, or null
+     * if not found
+     */
+    String[] getProjectedValues(String[] args, UsageToken[] projectedUsageTokens) {
+        String[] values = new String[projectedUsageTokens.length];
+        boolean acceptsOperands = usageTokenManager.getOperandUsageToken() != null;
         
+        ArgumentScanner argumentScanner = new ArgumentScanner(usageTokenManager, this, true);
         for (int index = 0; index < args.length; index++) {
-            String option = args[index];
-            if(option.startsWith("-")){
-                UsageToken usageToken = usageTokenManager.findUsageToken(option.replaceAll("[-]{1,2}", ""));
-                updateValueMap(usageToken, args, index);
+            String argument = args[index];
+            ArgumentScanner.Kind kind = argumentScanner.scan(argument);
+            if (kind == ArgumentScanner.Kind.END_OF_OPTIONS || (kind == ArgumentScanner.Kind.NON_OPTION && acceptsOperands)) {
+                break;
+            } else if (kind == ArgumentScanner.Kind.OPTION) {
+                UsageToken usageToken = argumentScanner.getUsageToken();
+                String value = "true";
+                if (needsValue(usageToken)) {
+                    // The value is skipped even if the option is not projected, so that it is not scanned as an option
+                    index++;
+                    value = index < args.length ? args[index] : null;
+                }
+                setProjectedValue(values, projectedUsageTokens, usageToken, value);
+            } else if (kind == ArgumentScanner.Kind.OPTION_WITH_VALUE) {
+                UsageToken usageToken = argumentScanner.getUsageToken();
+                if (indexOf(projectedUsageTokens, usageToken) != -1) {
+                    setProjectedValue(values, projectedUsageTokens, usageToken, argumentScanner.getAttachedValue(argument));
+                }
+            } else if (kind == ArgumentScanner.Kind.OPTION_CLUSTER) {
+                for (UsageToken usageToken : argumentScanner.getClusterUsageTokens()) {
+                    setProjectedValue(values, projectedUsageTokens, usageToken, "true");
+                }
             }
         }
+        
+        return values;
+    }
+    
+    /*
+    A later value replaces the one found earlier, same as a full parse keeps the last value of a repeated option
+    */
+    private static void setProjectedValue(String[] values, UsageToken[] projectedUsageTokens, UsageToken usageToken, String value) {
+        int index = indexOf(projectedUsageTokens, usageToken);
+        if (index != -1 && value != null) {
+            values[index] = value;
+        }
+    }
+    
+    private static int indexOf(UsageToken[] usageTokens, UsageToken usageToken) {
+        for (int index = 0; index < usageTokens.length; index++) {
+            if (usageTokens[index] == usageToken) {
+                return index;
+            }
+        }
+        return -1;
     }
     
     /**
+     * Same as {@link #getAvailableValues(String[])}, but the arguments are read one after another from given reader
      * 
-     * @return A set of usage tokens for which values are available in the command line argument
+     * @param argumentReader The source of command line arguments
+     * @return The values available in the command line arguments
+     * @throws IOException If the arguments could not be read
      */
-    public Set<UsageToken> getAvailableUsageTokens(){
-        return valueMap.keySet();
+    AvailableValues getAvailableValues(ArgumentReader argumentReader) throws IOException {
+        return getAvailableValues(argumentReader, false);
+    }
+    
+    private AvailableValues getAvailableValues(ArgumentReader argumentReader, boolean passThrough) throws IOException {
+        logger.trace("Parsing the arguments for values");
+        
+        AvailableValues availableValues = new AvailableValues();
+        UsageToken operandUsageToken = usageTokenManager.getOperandUsageToken();
+        
+        ArgumentScanner argumentScanner = new ArgumentScanner(usageTokenManager, this, passThrough);
+        String argument;
+        while ((argument = argumentReader.next()) != null) {
+            ArgumentScanner.Kind kind = argumentScanner.scan(argument);
+            if (kind == ArgumentScanner.Kind.END_OF_OPTIONS) {
+                if (operandUsageToken == null && passThrough) {
+                    updateUnrecognized(availableValues, argumentReader);
+                }
+                updateOperands(availableValues, operandUsageToken, argumentReader, false);
+                break;
+            } else if (kind == ArgumentScanner.Kind.OPTION) {
+                updateValueMap(availableValues, argumentScanner.getUsageToken(), argumentReader, argumentScanner);
+            } else if (kind == ArgumentScanner.Kind.OPTION_WITH_VALUE) {
+                availableValues.put(argumentScanner.getUsageToken(), argumentScanner.getAttachedValue(argument));
+            } else if (kind == ArgumentScanner.Kind.OPTION_CLUSTER) {
+                for (UsageToken usageToken : argumentScanner.getClusterUsageTokens()) {
+                    availableValues.put(usageToken, "");
+                }
+            } else if (kind == ArgumentScanner.Kind.UNKNOWN_OPTION) {
+                availableValues.addUnrecognizedIndex(argumentReader.getIndex());
+            } else if (operandUsageToken != null) {
+                updateOperands(availableValues, operandUsageToken, argumentReader, true);
+                break;
+            } else if (passThrough) {
+                availableValues.addUnrecognizedIndex(argumentReader.getIndex());
+            }
+        }
+        
+        return availableValues;
+    }
+    
+    /*
+    The end of options marker is passed through as well, so that the arguments after it are not taken as options by the receiver either
+    */
+    private void updateUnrecognized(AvailableValues availableValues, ArgumentReader argumentReader) throws IOException {
+        availableValues.addUnrecognizedIndex(argumentReader.getIndex());
+        while (argumentReader.next() != null) {
+            availableValues.addUnrecognizedIndex(argumentReader.getIndex());
+        }
     }
     
-    private void updateValueMap(UsageToken usageToken, String[] args, int currentIndex){
+    private void updateOperands(AvailableValues availableValues, UsageToken operandUsageToken, ArgumentReader argumentReader,
+            boolean includingCurrent) throws IOException {
+        if (operandUsageToken == null) {
+            return;
+        }
+        List<String> remaining = argumentReader.getRemaining(includingCurrent);
+        if (remaining.isEmpty()) {
+            return;
+        }
+        logger.trace("Found {} operands", remaining.size());
+        availableValues.setOperands(operandUsageToken, remaining);
+    }
+    
+    private void updateValueMap(AvailableValues availableValues, UsageToken usageToken, ArgumentReader argumentReader,
+            ArgumentScanner argumentScanner) throws IOException {
         String value = "";
         if(needsValue(usageToken)){
-            value = getValue(args, currentIndex);
+            value = getValue(argumentReader, argumentScanner);
         }
-        valueMap.put(usageToken, value);
+        availableValues.put(usageToken, value);
     }
     
-    private String getValue(String[] args, int currentIndex){
-        String value = "";
-        try{
-            value = args[currentIndex + 1];
-        }catch(ArrayIndexOutOfBoundsException e){
-            logger.warn("Got exception trying to get value at index {}: {}", currentIndex, e);
+    /*
+    A value cannot look like an option, except a negative number for which there is no option
+    */
+    private String getValue(ArgumentReader argumentReader, ArgumentScanner argumentScanner) throws IOException {
+        int currentIndex = argumentReader.getIndex();
+        String value = argumentReader.next();
+        if(value == null){
+            logger.warn("No value available after index {}", currentIndex);
             throw new IllegalArgumentException("Missing value for option at index: " +  currentIndex);
         }
         
-        if(value.startsWith("-")){
+        if(value.startsWith("-") && !argumentScanner.isNegativeValue(value)){
             throw new IllegalArgumentException("Missing value for option at index: " +  currentIndex);
         }
         
@@ -89,66 +314,232 @@ public class FieldValueManager {
     /**
      * 
      * @param usageToken The usage token corresponding to an option in the usage expression
+     * @param availableValues The values available in command line arguments
      * @return The value available in command line argument
      */
-    public Object getArgValueObject(UsageToken usageToken) {
-        String value = valueMap.get(usageToken);
+    public Object getArgValueObject(UsageToken usageToken, AvailableValues availableValues) {
+        try {
+            return convertArgValueObject(usageToken, availableValues);
+        } catch (IllegalArgumentException e) {
+            FlightRecorderEvents.conversionFailed(usageToken, getFieldType(usageToken), e);
+            throw e;
+        }
+    }
+    
+    private Object convertArgValueObject(UsageToken usageToken, AvailableValues availableValues) {
+        String value = availableValues.getValue(usageToken);
         Object argValue;
-        if (needsValue(usageToken)) {
-            Field field = usageToken.getMappedField(dataClass);
-            Class<?> fieldType = field.getType();
-            if (fieldType.isEnum()) {
-                argValue = Enum.valueOf((Class<Enum>)fieldType, value);
-            } else if (fieldType.isArray()) {
-                argValue = getArrayArgValue(value, fieldType);
+        if (usageToken.isOperand()) {
+            argValue = availableValues.getOperands();
+        } else if (needsValue(usageToken)) {
+            Class<?> fieldType = getFieldType(usageToken);
+            ValueConstraint constraint = getConstraint(usageToken);
+            ConvertedValueCache cache = valueCache;
+            if (DataClassValidator.isCollection(fieldType)) {
+                // Collections are not cached, EnumSet being mutable
+                argValue = getCollectionArgValue(value, fieldType, getElementType(usageToken), constraint);
+            } else if (cache != null && cache.isCached(usageToken, fieldType)) {
+                Object qualifier = constraint == ValueConstraint.NONE ? null : constraint;
+                argValue = cache.get(fieldType, arrayDelimiter, value, qualifier);
+                if (argValue == null) {
+                    argValue = getArgValueObject(value, fieldType, constraint);
+                    cache.put(fieldType, arrayDelimiter, value, qualifier, argValue);
+                }
             } else {
-                argValue = getNonArrayArgValue(value, fieldType);
+                argValue = getArgValueObject(value, fieldType, constraint);
             }
         } else {
-            argValue = true;
+            // A boolean option in arguments has no text, but one from a fallback source does
+            argValue = value.length() == 0 || Boolean.parseBoolean(value);
         }
 
         return argValue;
     }
+    
+    /*
+    Constraints are compiled only for the usage tokens of parser, not for those of a projection etc.
+    */
+    private ValueConstraint getConstraint(UsageToken usageToken) {
+        ValueConstraint constraint = constraintMap.get(usageToken);
+        return constraint == null ? ValueConstraint.NONE : constraint;
+    }
+    
+    /*
+    Field types are looked up once by initialize(), instead of reflectively by every parse
+    */
+    private Class<?> getFieldType(UsageToken usageToken) {
+        Class<?> fieldType = fieldTypeMap.get(usageToken);
+        return fieldType == null ? usageToken.getMappedField(dataClass).getType() : fieldType;
+    }
+    
+    private Class<?> getElementType(UsageToken usageToken) {
+        Class<?> elementType = elementTypeMap.get(usageToken);
+        return elementType == null ? DataClassValidator.getElementType(usageToken.getMappedField(dataClass)) : elementType;
+    }
+    
+    private EnumResolver getEnumResolver(Class<?> enumType) {
+        EnumResolver enumResolver = enumResolverMap.get(enumType);
+        return enumResolver == null ? new EnumResolver(enumType) : enumResolver;
+    }
+    
+    private Object getArgValueObject(String value, Class<?> fieldType, ValueConstraint constraint) {
+        Object argValue;
+        if (fieldType.isEnum()) {
+            argValue = getEnumResolver(fieldType).resolve(value);
+        } else if (fieldType.isArray()) {
+            argValue = getArrayArgValue(value, fieldType, constraint);
+        } else {
+            argValue = getNonArrayArgValue(value, fieldType, constraint);
+        }
+        
+        return argValue;
+    }
 
-    private Object getArrayArgValue(String value, Class<?> fieldType) {
+    private Object getArrayArgValue(String value, Class<?> fieldType, ValueConstraint constraint) {
         Class<?> arrayComponentFieldType = fieldType.getComponentType();
-        String delimiter = RegexUtil.containsSpecialCharacter(arrayDelimiter) ? 
-                RegexUtil.getSpecialCharactersEscaped(arrayDelimiter) : arrayDelimiter;
-        String[] vals = value.split(delimiter);
+        if (value.length() >= parallelDecodingThreshold && arrayDelimiter.length() > 0) {
+            return parallelArrayDecoder.decode(value, arrayDelimiter, arrayComponentFieldType, constraint);
+        }
+        
+        String[] vals = splitArrayValue(value);
+        constraint.checkLength(vals.length);
 
         Object arr = java.lang.reflect.Array.newInstance(arrayComponentFieldType, vals.length);
 
         for (int index = 0; index < vals.length; index++) {
-            try {
-                Array.set(arr, index, getNonArrayArgValue(vals[index].trim(), arrayComponentFieldType));
-            } catch (NumberFormatException e) {
-                throw new IllegalArgumentException("Incorrect data format (" + e.getMessage() + ")");
-            }
+            setArrayElement(arr, index, vals[index].trim(), arrayComponentFieldType, constraint);
         }
 
         return arr;
     }
+    
+    private String[] splitArrayValue(String value) {
+        String delimiter = RegexUtil.containsSpecialCharacter(arrayDelimiter) ? 
+                RegexUtil.getSpecialCharactersEscaped(arrayDelimiter) : arrayDelimiter;
+        return value.split(delimiter);
+    }
+    
+    /*
+    Integers and longs are parsed into primitive arrays backing the collection, enum constants into a bit vector backed EnumSet
+    */
+    private Collection<?> getCollectionArgValue(String value, Class<?> fieldType, Class<?> elementType, ValueConstraint constraint) {
+        String[] vals = splitArrayValue(value);
+        Collection<?> collection;
+        try {
+            if (fieldType == EnumSet.class) {
+                collection = getEnumSetArgValue(vals, elementType);
+            } else if (fieldType != List.class && fieldType != Set.class) {
+                throw new IllegalArgumentException("Cannot convert (" + value + ") to " + fieldType.getCanonicalName());
+            } else if (elementType == Integer.class) {
+                int[] ints = new int[vals.length];
+                for (int index = 0; index < vals.length; index++) {
+                    ints[index] = Integer.parseInt(vals[index].trim());
+                    constraint.checkRange(ints[index]);
+                }
+                collection = fieldType == List.class ? new IntList(ints) : new IntSet(ints);
+            } else if (elementType == Long.class) {
+                long[] longs = new long[vals.length];
+                for (int index = 0; index < vals.length; index++) {
+                    longs[index] = Long.parseLong(vals[index].trim());
+                    constraint.checkRange(longs[index]);
+                }
+                collection = fieldType == List.class ? new LongList(longs) : new LongSet(longs);
+            } else {
+                throw new IllegalArgumentException("Cannot convert (" + value + ") to collection of " + elementType);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Incorrect data format (" + e.getMessage() + ")");
+        }
+        constraint.checkLength(collection.size());
+        
+        return collection;
+    }
+    
+    /*
+    Element type is validated to be an enum, which is all the cast of its class assumes. Every constant added is cast checked
+    */
+    private <E extends Enum<E>> EnumSet<E> getEnumSetArgValue(String[] vals, Class<?> elementType) {
+        @SuppressWarnings("unchecked")
+        Class<E> enumType = (Class<E>) elementType;
+        EnumResolver enumResolver = getEnumResolver(enumType);
+        EnumSet<E> enumSet = EnumSet.noneOf(enumType);
+        for (String val : vals) {
+            enumSet.add(enumType.cast(enumResolver.resolve(val.trim())));
+        }
+        return enumSet;
+    }
+    
+    /*
+    Store primitives directly in the typed array, rest of the types go through the usual conversion
+    */
+    void setArrayElement(Object arr, int index, String element, Class<?> componentType, ValueConstraint constraint) {
+        try {
+            if (componentType == int.class) {
+                int intValue = Integer.parseInt(element);
+                constraint.checkRange(intValue);
+                ((int[]) arr)[index] = intValue;
+            } else if (componentType == long.class) {
+                long longValue = Long.parseLong(element);
+                constraint.checkRange(longValue);
+                ((long[]) arr)[index] = longValue;
+            } else if (componentType == double.class) {
+                double doubleValue = Double.parseDouble(element);
+                constraint.checkRange(doubleValue);
+                ((double[]) arr)[index] = doubleValue;
+            } else if (componentType == float.class) {
+                float floatValue = Float.parseFloat(element);
+                constraint.checkRange(floatValue);
+                ((float[]) arr)[index] = floatValue;
+            } else if (componentType == short.class) {
+                short shortValue = Short.parseShort(element);
+                constraint.checkRange(shortValue);
+                ((short[]) arr)[index] = shortValue;
+            } else {
+                Array.set(arr, index, getNonArrayArgValue(element, componentType, constraint.forElements()));
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Incorrect data format (" + e.getMessage() + ")");
+        }
+    }
 
-    private Object getNonArrayArgValue(String value, Class<?> fieldType) {
+    /*
+    Constraints are checked on the primitive value, before it is boxed
+    */
+    private Object getNonArrayArgValue(String value, Class<?> fieldType, ValueConstraint constraint) {
         Object argValue;
 
         if (fieldType == String.class) {
+            constraint.checkLength(value.length());
+            constraint.checkText(value);
             argValue = value;
         } else if (fieldType == Byte.class || fieldType == byte.class) {
-            argValue = Boolean.parseBoolean(value);
+            byte byteValue = Byte.parseByte(value);
+            constraint.checkRange(byteValue);
+            argValue = byteValue;
         } else if (fieldType == Character.class || fieldType == char.class) {
             argValue = value.charAt(0);
         } else if (fieldType == Short.class || fieldType == short.class) {
-            argValue = Short.parseShort(value);
+            short shortValue = Short.parseShort(value);
+            constraint.checkRange(shortValue);
+            argValue = shortValue;
         } else if (fieldType == Integer.class || fieldType == int.class) {
-            argValue = Integer.parseInt(value);
+            int intValue = Integer.parseInt(value);
+            constraint.checkRange(intValue);
+            argValue = intValue;
         } else if (fieldType == Long.class || fieldType == long.class) {
-            argValue = Long.parseLong(value);
+            long longValue = Long.parseLong(value);
+            constraint.checkRange(longValue);
+            argValue = longValue;
         } else if (fieldType == Float.class || fieldType == float.class) {
-            argValue = Float.parseFloat(value);
+            float floatValue = Float.parseFloat(value);
+            constraint.checkRange(floatValue);
+            argValue = floatValue;
         } else if (fieldType == Double.class || fieldType == double.class) {
-            argValue = Double.parseDouble(value);
+            double doubleValue = Double.parseDouble(value);
+            constraint.checkRange(doubleValue);
+            argValue = doubleValue;
+        } else if (fieldType.isEnum()) {
+            argValue = getEnumResolver(fieldType).resolve(value);
         } else {
             throw new IllegalArgumentException("Cannot convert (" + value + ") to appropriate data");
         }
@@ -161,8 +552,8 @@ public class FieldValueManager {
     for example, in "-file FILE -verbose", there must be a FILE value after "-file" but "-verbose" does not expect any corresponding value after it
     In short, everything beside booleans will need a value
      */
-    private boolean needsValue(UsageToken usageToken) {
-        Class<?> fieldType = usageToken.getMappedField(dataClass).getType();
+    boolean needsValue(UsageToken usageToken) {
+        Class<?> fieldType = getFieldType(usageToken);
         return !(fieldType == boolean.class || fieldType == Boolean.class);
     }
 }
@@ -0,0 +1,219 @@
+package com.easy.argparse;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This thread-safe class emits Java Flight Recorder events for compilation of usage expressions, parses and values which could not be
+ * converted, so that the cost of parsing can be correlated with garbage collection and CPU samples in a recording. Below events are emitted
+ * in category {@code Argument Parser}:
+ * <ul>
+ *    <li>{@code com.easy.argparse.Compile}: length of usage expression, number of usage tokens and duration of compilation</li>
+ *    <li>{@code com.easy.argparse.Parse}: number of arguments, duration and outcome ({@code SUCCESS} or the error) of a parse</li>
+ *    <li>{@code com.easy.argparse.ConversionFailure}: option, type of field and reason of a value which could not be converted</li>
+ * </ul>
+ * Events are disabled by default, and cost only a check of a flag unless enabled by {@link #enable()} or by setting system property
+ * {@value #ENABLED_PROPERTY} to {@code true}. The event types are defined at runtime through {@code jdk.jfr.EventFactory}, so this library
+ * needs no Flight Recorder at compile time and runs unchanged on a JVM without it, where events cannot be enabled <br>
+ * Like every Flight Recorder event, these are recorded only while a recording with the events enabled is running
+ *
+ * @author himanshu_shekhar
+ */
+public final class FlightRecorderEvents {
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecorderEvents.class);
+
+    /**
+     * System property which enables the events when the class is loaded, if set to {@code true}
+     */
+    public static final String ENABLED_PROPERTY = "com.easy.argparse.jfr";
+
+    private static final String CATEGORY = "Argument Parser";
+
+    private static volatile EventTypes eventTypes;
+    private static volatile boolean enabled;
+
+    static {
+        if (Boolean.getBoolean(ENABLED_PROPERTY)) {
+            enable();
+        }
+    }
+
+    private FlightRecorderEvents() {
+    }
+
+    /**
+     * Start emitting the events. The event types are defined by the first call
+     *
+     * @return If the events are enabled, false if Flight Recorder is not available in this JVM
+     */
+    public static synchronized boolean enable() {
+        if (eventTypes == null) {
+            try {
+                eventTypes = new EventTypes();
+            } catch (Exception e) {
+                logger.warn("Flight Recorder events cannot be defined, not enabling these: {}", e.toString());
+                return false;
+            } catch (LinkageError e) {
+                logger.warn("Flight Recorder is not available, not enabling events: {}", e.toString());
+                return false;
+            }
+        }
+        enabled = true;
+        return true;
+    }
+
+    /**
+     * Stop emitting the events
+     */
+    public static void disable() {
+        enabled = false;
+    }
+
+    /**
+     *
+     * @return If the events are being emitted
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     *
+     * @return An event whose duration starts now, to be committed by {@link #commitCompile(Object, int, int)}, or null if events are disabled
+     */
+    static Object beginCompile() {
+        return enabled ? eventTypes.begin(eventTypes.compile) : null;
+    }
+
+    static void commitCompile(Object event, int usageExpressionLength, int tokenCount) {
+        if (event != null) {
+            eventTypes.commit(event, Integer.valueOf(usageExpressionLength), Integer.valueOf(tokenCount));
+        }
+    }
+
+    /**
+     *
+     * @return An event whose duration starts now, to be committed by {@link #commitParse(Object, int, Throwable)}, or null if events are
+     * disabled
+     */
+    static Object beginParse() {
+        return enabled ? eventTypes.begin(eventTypes.parse) : null;
+    }
+
+    /**
+     *
+     * @param event The event returned by {@link #beginParse()}
+     * @param argumentCount Number of command line arguments
+     * @param failure The error which failed the parse, or null if it succeeded
+     */
+    static void commitParse(Object event, int argumentCount, Throwable failure) {
+        if (event != null) {
+            eventTypes.commit(event, Integer.valueOf(argumentCount), failure == null ? "SUCCESS" : failure.toString());
+        }
+    }
+
+    static void conversionFailed(UsageToken usageToken, Class<?> fieldType, Throwable reason) {
+        if (enabled) {
+            String option = usageToken.getOptionName() != null ? usageToken.getOptionName() : usageToken.getDataVariableName();
+            Object event = eventTypes.begin(eventTypes.conversionFailure);
+            eventTypes.commit(event, option, fieldType.getName(), String.valueOf(reason.getMessage()));
+        }
+    }
+
+    /*
+    Reflective access to jdk.jfr, the only part of this class which needs Flight Recorder. The event classes are generated by EventFactory, and
+    their fields are set by index in the order of the value descriptors
+    */
+    private static class EventTypes {
+        private final Object compile;
+        private final Object parse;
+        private final Object conversionFailure;
+
+        private final Method newEvent;
+        private final Method begin;
+        private final Method end;
+        private final Method shouldCommit;
+        private final Method set;
+        private final Method commit;
+
+        private final Class<?> annotationElementClass;
+        private final Class<?> valueDescriptorClass;
+        private final Method create;
+
+        EventTypes() throws ClassNotFoundException, NoSuchMethodException, InstantiationException, IllegalAccessException,
+                InvocationTargetException {
+            Class<?> eventFactoryClass = Class.forName("jdk.jfr.EventFactory");
+            Class<?> eventClass = Class.forName("jdk.jfr.Event");
+            annotationElementClass = Class.forName("jdk.jfr.AnnotationElement");
+            valueDescriptorClass = Class.forName("jdk.jfr.ValueDescriptor");
+            create = eventFactoryClass.getMethod("create", List.class, List.class);
+            newEvent = eventFactoryClass.getMethod("newEvent");
+            begin = eventClass.getMethod("begin");
+            end = eventClass.getMethod("end");
+            shouldCommit = eventClass.getMethod("shouldCommit");
+            set = eventClass.getMethod("set", int.class, Object.class);
+            commit = eventClass.getMethod("commit");
+
+            compile = createEventFactory("Compile", "Usage Expression Compilation", new Class<?>[]{int.class, int.class},
+                    new String[]{"usageExpressionLength", "tokenCount"});
+            parse = createEventFactory("Parse", "Argument Parse", new Class<?>[]{int.class, String.class},
+                    new String[]{"argumentCount", "outcome"});
+            conversionFailure = createEventFactory("ConversionFailure", "Value Conversion Failure",
+                    new Class<?>[]{String.class, String.class, String.class}, new String[]{"option", "fieldType", "reason"});
+        }
+
+        private Object createEventFactory(String name, String label, Class<?>[] fieldTypes, String[] fieldNames)
+                throws ClassNotFoundException, NoSuchMethodException, InstantiationException, IllegalAccessException,
+                InvocationTargetException {
+            Constructor<?> annotationElementConstructor = annotationElementClass.getConstructor(Class.class, Object.class);
+            List<Object> annotations = new ArrayList<Object>();
+            annotations.add(annotationElementConstructor.newInstance(Class.forName("jdk.jfr.Name"), "com.easy.argparse." + name));
+            annotations.add(annotationElementConstructor.newInstance(Class.forName("jdk.jfr.Label"), label));
+            Object categories = Array.newInstance(String.class, 1);
+            Array.set(categories, 0, CATEGORY);
+            annotations.add(annotationElementConstructor.newInstance(Class.forName("jdk.jfr.Category"), categories));
+
+            Constructor<?> valueDescriptorConstructor = valueDescriptorClass.getConstructor(Class.class, String.class);
+            List<Object> fields = new ArrayList<Object>();
+            for (int index = 0; index < fieldTypes.length; index++) {
+                fields.add(valueDescriptorConstructor.newInstance(fieldTypes[index], fieldNames[index]));
+            }
+            return create.invoke(null, annotations, fields);
+        }
+
+        Object begin(Object eventFactory) {
+            try {
+                Object event = newEvent.invoke(eventFactory);
+                begin.invoke(event);
+                return event;
+            } catch (Exception e) {
+                logger.debug("Cannot begin Flight Recorder event: {}", e.toString());
+                return null;
+            }
+        }
+
+        void commit(Object event, Object... values) {
+            if (event == null) {
+                return;
+            }
+            try {
+                end.invoke(event);
+                if (!(Boolean) shouldCommit.invoke(event)) {
+                    return;
+                }
+                for (int index = 0; index < values.length; index++) {
+                    set.invoke(event, index, values[index]);
+                }
+                commit.invoke(event);
+            } catch (Exception e) {
+                logger.debug("Cannot commit Flight Recorder event: {}", e.toString());
+            }
+        }
+    }
+}
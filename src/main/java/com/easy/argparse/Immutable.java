@@ -0,0 +1,20 @@
+package com.easy.argparse;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares that instances of a data class are not modified once parsed, so that {@link ArgumentParser} can return the same instance for the
+ * same arguments out of a {@link ParsedResultCache}, instead of a copy of it. Neither the instance nor any array or collection in it should
+ * be modified then, as that would change the values returned by later parses
+ *
+ * @author himanshu_shekhar
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Immutable {
+}
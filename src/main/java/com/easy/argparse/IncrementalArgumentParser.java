@@ -0,0 +1,180 @@
+package com.easy.argparse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This thread-safe class keeps one instance of data class up to date with command line arguments which are parsed again and again, e.g. by a
+ * daemon re-reading its arguments on every reload. Every update compares the text of every option with that of the previous update, and only
+ * the options whose text changed are converted and set again. An option no longer present is set back to its default value, i.e. the value
+ * in an instance created by the default constructor of data class <br>
+ * Values are updated in either of below modes:
+ * <ul>
+ *    <li>{@link UpdateMode#IN_PLACE}: the changed values are set in the same instance, which readers might see while it is being updated</li>
+ *    <li>{@link UpdateMode#COPY_ON_WRITE}: every update which changes anything creates a new instance, published once all of its values are
+ *    set. Values which did not change are carried over from the previous instance, arrays and {@code EnumSet} being copied so that no
+ *    mutable value is shared by two instances</li>
+ * </ul>
+ * All the values are converted before any is set, so an update failing to convert a value leaves the data unchanged. Updates are serialized,
+ * while {@link #getData()} takes no lock
+ *
+ * @author himanshu_shekhar
+ */
+public class IncrementalArgumentParser {
+    private static final Logger logger = LoggerFactory.getLogger(IncrementalArgumentParser.class);
+
+    /**
+     * How an update sets the changed values
+     */
+    public enum UpdateMode {
+        IN_PLACE,
+        COPY_ON_WRITE
+    }
+
+    private final ArgumentParser argumentParser;
+    private final UpdateMode updateMode;
+    private final Object defaultData;
+    private final List<ArgumentChangeListener> listeners;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     *
+     * @param argumentParser The parser as per whose usage expression the arguments are parsed
+     * @param updateMode How the changed values are set
+     * @throws IllegalArgumentException If usage expression or data class of the parser is not valid
+     */
+    public IncrementalArgumentParser(ArgumentParser argumentParser, UpdateMode updateMode) {
+        argumentParser.compile();
+        this.argumentParser = argumentParser;
+        this.updateMode = updateMode;
+        this.defaultData = argumentParser.getDataClassInstance();
+        this.listeners = new CopyOnWriteArrayList<ArgumentChangeListener>();
+        this.snapshot = new Snapshot(null, new HashMap<UsageToken, String>(), null, new HashMap<UsageToken, Object>());
+    }
+
+    /**
+     *
+     * @param listener The listener to notify after every update which changes any value
+     */
+    public void addListener(ArgumentChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     *
+     * @param listener The listener not to notify any more
+     */
+    public void removeListener(ArgumentChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     *
+     * @return The instance of data class with values of the last update, or null if not updated yet
+     */
+    public Object getData() {
+        return snapshot.data;
+    }
+
+    /**
+     * Parse the arguments and update the values which changed since the previous update. The first update sets all the values available
+     *
+     * @param args The values representing command line arguments
+     * @return Names of the variables in data class whose values changed, in order of the usage expression
+     * @throws IllegalArgumentException If the arguments could not be parsed, in which case nothing is updated
+     */
+    public synchronized Set<String> update(String[] args) {
+        Snapshot previous = snapshot;
+        AvailableValues availableValues = argumentParser.getAvailableValues(args);
+
+        Map<UsageToken, String> texts = new HashMap<UsageToken, String>();
+        Map<UsageToken, Object> values = new HashMap<UsageToken, Object>();
+        Map<UsageToken, Object> changedValues = new LinkedHashMap<UsageToken, Object>();
+        for (UsageToken usageToken : argumentParser.getUsageTokens()) {
+            String text = availableValues.getValue(usageToken);
+            boolean changed = previous.data == null || !equals(text, previous.texts.get(usageToken))
+                    || (usageToken.isOperand() && !equals(availableValues.getOperands(), previous.operands));
+            Object value;
+            if (!changed) {
+                value = previous.values.get(usageToken);
+            } else if (text == null) {
+                value = ArgumentParser.copyMutableValue(argumentParser.getFieldValue(usageToken, defaultData));
+            } else {
+                value = argumentParser.getArgValueObject(usageToken, availableValues);
+            }
+            if (text != null) {
+                texts.put(usageToken, text);
+                values.put(usageToken, value);
+            }
+            if (changed && (text != null || previous.texts.containsKey(usageToken))) {
+                changedValues.put(usageToken, value);
+            }
+        }
+
+        Object data = previous.data;
+        if (data == null || (updateMode == UpdateMode.COPY_ON_WRITE && !changedValues.isEmpty())) {
+            data = argumentParser.getDataClassInstance();
+            for (Map.Entry<UsageToken, Object> value : values.entrySet()) {
+                // A value converted by this update is new, any other is set in the previous instance as well
+                Object newValue = changedValues.containsKey(value.getKey()) ? value.getValue()
+                        : ArgumentParser.copyMutableValue(value.getValue());
+                argumentParser.invokeSetterMethod(value.getKey(), data, newValue);
+                value.setValue(newValue);
+            }
+        } else {
+            for (Map.Entry<UsageToken, Object> changedValue : changedValues.entrySet()) {
+                argumentParser.invokeSetterMethod(changedValue.getKey(), data, changedValue.getValue());
+            }
+        }
+        // Operands are a view over the arguments, which the caller might reuse for the next update
+        List<String> operands = availableValues.getOperands();
+        snapshot = new Snapshot(data, texts, operands == null ? null : new ArrayList<String>(operands), values);
+
+        Set<String> changedVariableNames = new LinkedHashSet<String>();
+        for (UsageToken usageToken : changedValues.keySet()) {
+            changedVariableNames.add(usageToken.getDataVariableName());
+        }
+        logger.debug("Updated variables: {}", changedVariableNames);
+        if (!changedVariableNames.isEmpty()) {
+            notifyListeners(data, Collections.unmodifiableSet(changedVariableNames));
+        }
+        return changedVariableNames;
+    }
+
+    private void notifyListeners(Object data, Set<String> changedVariableNames) {
+        for (ArgumentChangeListener listener : listeners) {
+            listener.argumentsChanged(data, changedVariableNames);
+        }
+    }
+
+    private static boolean equals(Object first, Object second) {
+        return first == null ? second == null : first.equals(second);
+    }
+
+    /*
+    Text and converted value of every option available in an update, replaced as a whole by every update
+    */
+    private static class Snapshot {
+        private final Object data;
+        private final Map<UsageToken, String> texts;
+        private final List<String> operands;
+        private final Map<UsageToken, Object> values;
+
+        Snapshot(Object data, Map<UsageToken, String> texts, List<String> operands, Map<UsageToken, Object> values) {
+            this.data = data;
+            this.texts = texts;
+            this.operands = operands;
+            this.values = values;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.easy.argparse;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * This class provides a read-only {@code List} view over the command line arguments at given indices, without copying them
+ *
+ * @author himanshu_shekhar
+ */
+class IndexedArgumentsView extends AbstractList<String> implements RandomAccess {
+    private final String[] args;
+    private final int[] indices;
+    private final int size;
+
+    /**
+     *
+     * @param args The command line arguments
+     * @param indices Indices of the arguments in the view, in order
+     * @param size Number of indices used from {@code indices}
+     */
+    IndexedArgumentsView(String[] args, int[] indices, int size) {
+        this.args = args;
+        this.indices = indices;
+        this.size = size;
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return args[indices[index]];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
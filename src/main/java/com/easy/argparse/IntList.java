@@ -0,0 +1,54 @@
+package com.easy.argparse;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * This immutable class is a {@code List<Integer>} backed by an array of {@code int}, so that the values parsed for a {@code List<Integer>} field are
+ * kept without boxing. Use {@link #getInt(int)} to read a value without boxing it
+ *
+ * @author himanshu_shekhar
+ */
+public class IntList extends AbstractList<Integer> implements RandomAccess {
+    private final int[] values;
+
+    /*
+    Given array is owned by this list, no copy is made
+    */
+    IntList(int[] values) {
+        this.values = values;
+    }
+
+    /**
+     *
+     * @param index Index of the value
+     * @return The value at given index
+     * @throws IndexOutOfBoundsException If index is not within the list
+     */
+    public int getInt(int index) {
+        if (index < 0 || index >= values.length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + values.length);
+        }
+        return values[index];
+    }
+
+    @Override
+    public Integer get(int index) {
+        return getInt(index);
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     *
+     * @return A copy of the values in this list
+     */
+    public int[] toIntArray() {
+        int[] copy = new int[values.length];
+        System.arraycopy(values, 0, copy, 0, values.length);
+        return copy;
+    }
+}
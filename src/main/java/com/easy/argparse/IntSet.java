@@ -0,0 +1,87 @@
+package com.easy.argparse;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This immutable class is a {@code Set<Integer>} backed by a sorted array of distinct {@code int} values, so that the values parsed for a
+ * {@code Set<Integer>} field are kept without boxing. Iteration is in ascending order, and {@link #containsInt(int)} looks up a value by binary
+ * search without boxing it
+ *
+ * @author himanshu_shekhar
+ */
+public class IntSet extends AbstractSet<Integer> {
+    private final int[] values;
+
+    /*
+    Given array is sorted in place and its distinct values are kept
+    */
+    IntSet(int[] values) {
+        Arrays.sort(values);
+        int distinctCount = 0;
+        for (int index = 0; index < values.length; index++) {
+            if (distinctCount == 0 || values[distinctCount - 1] != values[index]) {
+                values[distinctCount++] = values[index];
+            }
+        }
+        if (distinctCount == values.length) {
+            this.values = values;
+        } else {
+            this.values = new int[distinctCount];
+            System.arraycopy(values, 0, this.values, 0, distinctCount);
+        }
+    }
+
+    /**
+     *
+     * @param value The value to look for
+     * @return If the value is present in this set
+     */
+    public boolean containsInt(int value) {
+        return Arrays.binarySearch(values, value) >= 0;
+    }
+
+    @Override
+    public boolean contains(Object obj) {
+        return obj instanceof Integer && containsInt((Integer) obj);
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new Iterator<Integer>() {
+            private int index;
+
+            public boolean hasNext() {
+                return index < values.length;
+            }
+
+            public Integer next() {
+                if (index >= values.length) {
+                    throw new NoSuchElementException();
+                }
+                return values[index++];
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException("Set is immutable");
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     *
+     * @return A copy of the values in this set, in ascending order
+     */
+    public int[] toIntArray() {
+        int[] copy = new int[values.length];
+        System.arraycopy(values, 0, copy, 0, values.length);
+        return copy;
+    }
+}
@@ -0,0 +1,69 @@
+package com.easy.argparse;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This thread-safe class answers the methods of a lazy view returned by {@link ArgumentParser#parseLazily(String[], Class)}. The values
+ * available in command line arguments are kept as text, and the value of a method is converted when it is first called and then kept for
+ * later calls. Threads calling a method together might each convert its value, but all of them return the one kept first
+ *
+ * @author himanshu_shekhar
+ */
+class LazyValueHandler implements InvocationHandler {
+    private static final Object NOT_CONVERTED = new Object();
+
+    private final ArgumentParser argumentParser;
+    private final LazyViewPlan lazyViewPlan;
+    private final AvailableValues availableValues;
+    private final AtomicReferenceArray<Object> values;
+
+    LazyValueHandler(ArgumentParser argumentParser, LazyViewPlan lazyViewPlan, AvailableValues availableValues) {
+        this.argumentParser = argumentParser;
+        this.lazyViewPlan = lazyViewPlan;
+        this.availableValues = availableValues;
+        this.values = new AtomicReferenceArray<Object>(lazyViewPlan.getMethodCount());
+        for (int index = 0; index < values.length(); index++) {
+            values.set(index, NOT_CONVERTED);
+        }
+    }
+
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        int index = lazyViewPlan.indexOf(method);
+        if (index == -1) {
+            return invokeObjectMethod(proxy, method, args);
+        }
+
+        Object value = values.get(index);
+        if (value == NOT_CONVERTED) {
+            values.compareAndSet(index, NOT_CONVERTED, convert(lazyViewPlan.getUsageToken(index)));
+            value = values.get(index);
+        }
+        return value;
+    }
+
+    private Object convert(UsageToken usageToken) {
+        if (availableValues.getUsageTokens().contains(usageToken)) {
+            return argumentParser.getArgValueObject(usageToken, availableValues);
+        }
+        return argumentParser.getDefaultValue(usageToken);
+    }
+
+    /*
+    A view is equal only to itself, as there is no cheap way to compare values which are not converted yet
+    */
+    private Object invokeObjectMethod(Object proxy, Method method, Object[] args) {
+        String name = method.getName();
+        if (name.equals("equals")) {
+            return proxy == args[0];
+        }
+        if (name.equals("hashCode")) {
+            return System.identityHashCode(proxy);
+        }
+        if (name.equals("toString")) {
+            return "Lazy view of " + lazyViewPlan.getOptionsInterface().getCanonicalName();
+        }
+        throw new UnsupportedOperationException("Method " + name + " is not supported by lazy view");
+    }
+}
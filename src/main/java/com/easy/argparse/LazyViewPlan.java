@@ -0,0 +1,92 @@
+package com.easy.argparse;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This immutable class maps the methods of an interface describing the options to the usage tokens whose values these return. A method
+ * named {@code getMinute}, {@code isMinute} or {@code minute} returns the value of data variable {@code minute}, and must have no parameters
+ * and the same return type as the variable in data class. It is created once per interface and shared by every lazy view of that interface
+ *
+ * @author himanshu_shekhar
+ */
+class LazyViewPlan {
+    private final Class<?> optionsInterface;
+    private final Map<Method, Integer> methodIndexMap;
+    private final UsageToken[] usageTokens;
+
+    /**
+     *
+     * @param optionsInterface The interface describing the options
+     * @param dataClass The data class which holds the values of usage expression
+     * @param allUsageTokens All the usage tokens of usage expression
+     * @throws IllegalArgumentException If the class is not an interface, or any of its methods does not match a variable
+     */
+    LazyViewPlan(Class<?> optionsInterface, Class<?> dataClass, List<UsageToken> allUsageTokens) {
+        if (!optionsInterface.isInterface()) {
+            throw new IllegalArgumentException(optionsInterface.getCanonicalName() + " is not an interface");
+        }
+        Map<String, UsageToken> variableMap = new HashMap<String, UsageToken>();
+        for (UsageToken usageToken : allUsageTokens) {
+            variableMap.put(usageToken.getDataVariableName(), usageToken);
+        }
+
+        this.optionsInterface = optionsInterface;
+        this.methodIndexMap = new HashMap<Method, Integer>();
+        Method[] methods = optionsInterface.getMethods();
+        this.usageTokens = new UsageToken[methods.length];
+        for (int index = 0; index < methods.length; index++) {
+            Method method = methods[index];
+            UsageToken usageToken = variableMap.get(getVariableName(method.getName()));
+            if (usageToken == null) {
+                usageToken = variableMap.get(method.getName());
+            }
+            if (usageToken == null || method.getParameterTypes().length > 0) {
+                throw new IllegalArgumentException("Method " + method.getName() + " of " + optionsInterface.getCanonicalName()
+                        + " does not return any variable of usage expression");
+            }
+            Class<?> fieldType = usageToken.getMappedField(dataClass).getType();
+            if (method.getReturnType() != fieldType) {
+                throw new IllegalArgumentException("Method " + method.getName() + " of " + optionsInterface.getCanonicalName()
+                        + " must return " + fieldType.getCanonicalName());
+            }
+            methodIndexMap.put(method, index);
+            usageTokens[index] = usageToken;
+        }
+    }
+
+    /*
+    Bean property name of a getter, e.g. "minute" for "getMinute", or null if it is not named like a getter
+    */
+    private static String getVariableName(String methodName) {
+        int prefixLength = methodName.startsWith("get") ? 3 : methodName.startsWith("is") ? 2 : 0;
+        if (prefixLength == 0 || methodName.length() == prefixLength) {
+            return null;
+        }
+        return Character.toLowerCase(methodName.charAt(prefixLength)) + methodName.substring(prefixLength + 1);
+    }
+
+    Class<?> getOptionsInterface() {
+        return optionsInterface;
+    }
+
+    int getMethodCount() {
+        return usageTokens.length;
+    }
+
+    /**
+     *
+     * @param method A method of the interface
+     * @return Index of the method, or -1 if it is not a method of the interface
+     */
+    int indexOf(Method method) {
+        Integer index = methodIndexMap.get(method);
+        return index == null ? -1 : index;
+    }
+
+    UsageToken getUsageToken(int index) {
+        return usageTokens[index];
+    }
+}
@@ -0,0 +1,31 @@
+package com.easy.argparse;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Constrains the length of a {@code String} field, or the number of elements of an array field, in the data class to given bounds, both
+ * inclusive. For example, {@code @Length(min = 1) private String name;}
+ *
+ * @author himanshu_shekhar
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Length {
+
+    /**
+     *
+     * @return The minimum allowed length
+     */
+    int min() default 0;
+
+    /**
+     *
+     * @return The maximum allowed length
+     */
+    int max() default Integer.MAX_VALUE;
+}
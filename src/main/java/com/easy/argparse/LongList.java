@@ -0,0 +1,54 @@
+package com.easy.argparse;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * This immutable class is a {@code List<Long>} backed by an array of {@code long}, so that the values parsed for a {@code List<Long>} field are
+ * kept without boxing. Use {@link #getLong(int)} to read a value without boxing it
+ *
+ * @author himanshu_shekhar
+ */
+public class LongList extends AbstractList<Long> implements RandomAccess {
+    private final long[] values;
+
+    /*
+    Given array is owned by this list, no copy is made
+    */
+    LongList(long[] values) {
+        this.values = values;
+    }
+
+    /**
+     *
+     * @param index Index of the value
+     * @return The value at given index
+     * @throws IndexOutOfBoundsException If index is not within the list
+     */
+    public long getLong(int index) {
+        if (index < 0 || index >= values.length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + values.length);
+        }
+        return values[index];
+    }
+
+    @Override
+    public Long get(int index) {
+        return getLong(index);
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     *
+     * @return A copy of the values in this list
+     */
+    public long[] toLongArray() {
+        long[] copy = new long[values.length];
+        System.arraycopy(values, 0, copy, 0, values.length);
+        return copy;
+    }
+}
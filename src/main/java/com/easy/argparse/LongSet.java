@@ -0,0 +1,87 @@
+package com.easy.argparse;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This immutable class is a {@code Set<Long>} backed by a sorted array of distinct {@code long} values, so that the values parsed for a
+ * {@code Set<Long>} field are kept without boxing. Iteration is in ascending order, and {@link #containsLong(long)} looks up a value by binary
+ * search without boxing it
+ *
+ * @author himanshu_shekhar
+ */
+public class LongSet extends AbstractSet<Long> {
+    private final long[] values;
+
+    /*
+    Given array is sorted in place and its distinct values are kept
+    */
+    LongSet(long[] values) {
+        Arrays.sort(values);
+        int distinctCount = 0;
+        for (int index = 0; index < values.length; index++) {
+            if (distinctCount == 0 || values[distinctCount - 1] != values[index]) {
+                values[distinctCount++] = values[index];
+            }
+        }
+        if (distinctCount == values.length) {
+            this.values = values;
+        } else {
+            this.values = new long[distinctCount];
+            System.arraycopy(values, 0, this.values, 0, distinctCount);
+        }
+    }
+
+    /**
+     *
+     * @param value The value to look for
+     * @return If the value is present in this set
+     */
+    public boolean containsLong(long value) {
+        return Arrays.binarySearch(values, value) >= 0;
+    }
+
+    @Override
+    public boolean contains(Object obj) {
+        return obj instanceof Long && containsLong((Long) obj);
+    }
+
+    @Override
+    public Iterator<Long> iterator() {
+        return new Iterator<Long>() {
+            private int index;
+
+            public boolean hasNext() {
+                return index < values.length;
+            }
+
+            public Long next() {
+                if (index >= values.length) {
+                    throw new NoSuchElementException();
+                }
+                return values[index++];
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException("Set is immutable");
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     *
+     * @return A copy of the values in this set, in ascending order
+     */
+    public long[] toLongArray() {
+        long[] copy = new long[values.length];
+        System.arraycopy(values, 0, copy, 0, values.length);
+        return copy;
+    }
+}
@@ -0,0 +1,25 @@
+package com.easy.argparse;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Constrains the value of a {@code String} field (or every element of a {@code String} array) in the data class to match given regular
+ * expression entirely. For example, {@code @Matches("[a-z]+") private String user;}
+ *
+ * @author himanshu_shekhar
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Matches {
+
+    /**
+     *
+     * @return The regular expression, as accepted by {@link java.util.regex.Pattern}
+     */
+    String value();
+}
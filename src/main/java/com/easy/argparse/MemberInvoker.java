@@ -0,0 +1,57 @@
+package com.easy.argparse;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * This immutable class invokes a setter method or default constructor of data class, which is what binding a value and creating an
+ * instance come down to. This implementation uses reflection, so that it runs on every supported JVM. The multi-release JAR built by profile
+ * {@code multi-release} replaces it on Java 11 and later by one using {@code java.lang.invoke.MethodHandle}, with the same methods and
+ * exceptions
+ *
+ * @author himanshu_shekhar
+ */
+final class MemberInvoker {
+    private final Method method;
+    private final Constructor<?> constructor;
+
+    private MemberInvoker(Method method, Constructor<?> constructor) {
+        this.method = method;
+        this.constructor = constructor;
+    }
+
+    /**
+     *
+     * @param setterMethod An accessible setter method
+     * @return Invoker of the method
+     */
+    static MemberInvoker forSetterMethod(Method setterMethod) {
+        return new MemberInvoker(setterMethod, null);
+    }
+
+    /**
+     *
+     * @param defaultConstructor An accessible constructor without parameters
+     * @return Invoker of the constructor
+     */
+    static MemberInvoker forConstructor(Constructor<?> defaultConstructor) {
+        return new MemberInvoker(null, defaultConstructor);
+    }
+
+    /**
+     *
+     * @return Name of the mechanism used, to tell which implementation is loaded
+     */
+    static String getImplementation() {
+        return "reflection";
+    }
+
+    void invokeSetter(Object target, Object value) throws IllegalAccessException, InvocationTargetException {
+        method.invoke(target, value);
+    }
+
+    Object newInstance() throws IllegalAccessException, InvocationTargetException, InstantiationException {
+        return constructor.newInstance();
+    }
+}
@@ -0,0 +1,152 @@
+package com.easy.argparse;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class reads NUL ({@code \0}) delimited arguments from a channel, in the same format as {@code find -print0} writes and
+ * {@code xargs -0} reads. The channel is read through a fixed size buffer, so only the argument being read is kept in memory. An argument
+ * crossing the boundary of the buffer is accumulated separately. The last argument need not be followed by NUL <br>
+ * The channel is expected to be in blocking mode. This class is not thread-safe, so a new instance should be used for every parse
+ *
+ * @author himanshu_shekhar
+ */
+class NulDelimitedArgumentReader implements ArgumentReader {
+    private static final Logger logger = LoggerFactory.getLogger(NulDelimitedArgumentReader.class);
+
+    static final int BUFFER_SIZE = 8192;
+
+    private final ReadableByteChannel channel;
+    private final Charset charset;
+    private final ByteBuffer buffer;
+
+    private byte[] pending;
+    private int pendingLength;
+    private boolean endOfStream;
+    private int index;
+    private String current;
+
+    /**
+     *
+     * @param channel The channel to read arguments from
+     * @param charset The character set in which arguments are encoded
+     */
+    NulDelimitedArgumentReader(ReadableByteChannel channel, Charset charset) {
+        this(channel, charset, BUFFER_SIZE);
+    }
+
+    NulDelimitedArgumentReader(ReadableByteChannel channel, Charset charset, int bufferSize) {
+        this.channel = channel;
+        this.charset = charset;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        this.buffer.flip();
+        this.pending = new byte[0];
+        this.index = -1;
+    }
+
+    public String next() throws IOException {
+        current = read();
+        return current;
+    }
+
+    private String read() throws IOException {
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                if (endOfStream || !fill()) {
+                    return nextAtEndOfStream();
+                }
+            }
+
+            int start = buffer.position();
+            int limit = buffer.limit();
+            for (int position = start; position < limit; position++) {
+                if (buffer.get(position) == 0) {
+                    String argument = decode(start, position);
+                    buffer.position(position + 1);
+                    index++;
+                    return argument;
+                }
+            }
+
+            // No delimiter in rest of the buffer, so the argument continues in next read
+            appendPending(start, limit);
+            buffer.position(limit);
+        }
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    /*
+    Operands are available only as the channel is read, so these have to be collected
+    */
+    public List<String> getRemaining(boolean includingCurrent) throws IOException {
+        List<String> remaining = new ArrayList<String>();
+        if (includingCurrent && current != null) {
+            remaining.add(current);
+        }
+        String argument;
+        while ((argument = next()) != null) {
+            remaining.add(argument);
+        }
+        return remaining;
+    }
+
+    private boolean fill() throws IOException {
+        buffer.clear();
+        int count = channel.read(buffer);
+        buffer.flip();
+        if (count == -1) {
+            logger.trace("Reached end of stream after {} arguments", index + 1);
+            endOfStream = true;
+        }
+        return count != -1;
+    }
+
+    private String nextAtEndOfStream() {
+        if (pendingLength == 0) {
+            return null;
+        }
+        String argument = charset.decode(ByteBuffer.wrap(pending, 0, pendingLength)).toString();
+        pendingLength = 0;
+        index++;
+        return argument;
+    }
+
+    /*
+    Decode straight from the buffer, unless a part of the argument was read earlier
+    */
+    private String decode(int start, int end) {
+        if (pendingLength > 0) {
+            appendPending(start, end);
+            String argument = charset.decode(ByteBuffer.wrap(pending, 0, pendingLength)).toString();
+            pendingLength = 0;
+            return argument;
+        }
+        ByteBuffer argumentBytes = buffer.duplicate();
+        argumentBytes.limit(end);
+        argumentBytes.position(start);
+        return charset.decode(argumentBytes).toString();
+    }
+
+    private void appendPending(int start, int end) {
+        int length = end - start;
+        if (pendingLength + length > pending.length) {
+            byte[] grown = new byte[Math.max(pending.length * 2, pendingLength + length)];
+            System.arraycopy(pending, 0, grown, 0, pendingLength);
+            pending = grown;
+        }
+        ByteBuffer source = buffer.duplicate();
+        source.limit(end);
+        source.position(start);
+        source.get(pending, pendingLength, length);
+        pendingLength += length;
+    }
+}
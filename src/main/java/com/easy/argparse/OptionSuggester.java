@@ -0,0 +1,137 @@
+package com.easy.argparse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * This immutable class suggests the option names (and aliases) close to an unknown option, to tell the user what was possibly meant. Names
+ * are kept in a BK-tree built once when the usage expression is compiled, so a lookup computes the edit distance to only a small part of the
+ * names instead of all of them
+ *
+ * @author himanshu_shekhar
+ */
+class OptionSuggester {
+    private static final int MAX_SUGGESTIONS = 3;
+
+    private final Node root;
+
+    /**
+     *
+     * @param optionNames Names and aliases of the options in usage expression
+     */
+    OptionSuggester(List<String> optionNames) {
+        Node tree = null;
+        for (String optionName : optionNames) {
+            if (tree == null) {
+                tree = new Node(optionName);
+            } else {
+                tree.add(optionName);
+            }
+        }
+        this.root = tree;
+    }
+
+    /**
+     *
+     * @param option The unknown option
+     * @return The closest option names, nearest first, or an empty list if no name is close enough
+     */
+    List<String> suggest(String option) {
+        if (root == null) {
+            return Collections.emptyList();
+        }
+        // Allow a typo in every few characters, but not so many that every short name is suggested
+        int maxDistance = Math.max(1, Math.min(3, option.length() / 3));
+        List<Suggestion> suggestions = new ArrayList<Suggestion>();
+        root.search(option, maxDistance, suggestions);
+        Collections.sort(suggestions, new Comparator<Suggestion>() {
+            public int compare(Suggestion first, Suggestion second) {
+                return first.distance != second.distance ? first.distance - second.distance : first.name.compareTo(second.name);
+            }
+        });
+
+        List<String> names = new ArrayList<String>(Math.min(MAX_SUGGESTIONS, suggestions.size()));
+        for (int index = 0; index < suggestions.size() && index < MAX_SUGGESTIONS; index++) {
+            names.add(suggestions.get(index).name);
+        }
+        return names;
+    }
+
+    /*
+    Levenshtein distance computed over two rows of the dynamic programming table
+    */
+    static int getDistance(String first, String second) {
+        int[] previous = new int[second.length() + 1];
+        int[] current = new int[second.length() + 1];
+        for (int column = 0; column <= second.length(); column++) {
+            previous[column] = column;
+        }
+        for (int row = 1; row <= first.length(); row++) {
+            current[0] = row;
+            char c = first.charAt(row - 1);
+            for (int column = 1; column <= second.length(); column++) {
+                int substitution = previous[column - 1] + (c == second.charAt(column - 1) ? 0 : 1);
+                current[column] = Math.min(substitution, Math.min(previous[column], current[column - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[second.length()];
+    }
+
+    /*
+    Every child is at the distance from its parent given by its index, so by triangle inequality only the children within maxDistance of the
+    distance between query and parent need to be searched
+    */
+    private static class Node {
+        private final String name;
+        private Node[] children = new Node[0];
+
+        Node(String name) {
+            this.name = name;
+        }
+
+        void add(String otherName) {
+            int distance = getDistance(name, otherName);
+            if (distance == 0) {
+                return;
+            }
+            if (distance >= children.length) {
+                Node[] newChildren = new Node[distance + 1];
+                System.arraycopy(children, 0, newChildren, 0, children.length);
+                children = newChildren;
+            }
+            if (children[distance] == null) {
+                children[distance] = new Node(otherName);
+            } else {
+                children[distance].add(otherName);
+            }
+        }
+
+        void search(String option, int maxDistance, List<Suggestion> suggestions) {
+            int distance = getDistance(name, option);
+            if (distance <= maxDistance) {
+                suggestions.add(new Suggestion(name, distance));
+            }
+            int last = Math.min(children.length - 1, distance + maxDistance);
+            for (int index = Math.max(1, distance - maxDistance); index <= last; index++) {
+                if (children[index] != null) {
+                    children[index].search(option, maxDistance, suggestions);
+                }
+            }
+        }
+    }
+
+    private static class Suggestion {
+        private final String name;
+        private final int distance;
+
+        Suggestion(String name, int distance) {
+            this.name = name;
+            this.distance = distance;
+        }
+    }
+}
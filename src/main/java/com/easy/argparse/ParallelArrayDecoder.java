@@ -0,0 +1,191 @@
+package com.easy.argparse;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This thread-safe class decodes a large delimited value into an array. The value is cut into delimiter aligned chunks, the elements of every
+ * chunk are counted and decoded concurrently, and all chunks write into one preallocated array
+ *
+ * @author himanshu_shekhar
+ */
+class ParallelArrayDecoder {
+    private static final Logger logger = LoggerFactory.getLogger(ParallelArrayDecoder.class);
+
+    // A chunk smaller than this is not worth handing over to another thread
+    private static final int MIN_CHUNK_LENGTH = 64 * 1024;
+
+    private final FieldValueManager fieldValueManager;
+
+    /**
+     *
+     * @param fieldValueManager Instance used to convert each element of the array
+     */
+    ParallelArrayDecoder(FieldValueManager fieldValueManager) {
+        this.fieldValueManager = fieldValueManager;
+    }
+
+    /**
+     *
+     * @param value The delimited value as available in command line argument
+     * @param delimiter The literal (not escaped) delimiter separating the elements
+     * @param componentType The component type of resulting array
+     * @param constraint The constraint to check number of elements and every element against
+     * @return An array of {@code componentType} with the same elements as {@code value.split(delimiter)} would give
+     * @throws IllegalArgumentException If any of the elements cannot be converted
+     */
+    Object decode(final String value, final String delimiter, final Class<?> componentType, final ValueConstraint constraint) {
+        // Trailing empty elements are dropped, same as String.split does, except that an empty value is a single empty element, which is
+        // left to the only chunk to decode
+        int end = value.length();
+        while (end >= delimiter.length() && value.startsWith(delimiter, end - delimiter.length())) {
+            end -= delimiter.length();
+        }
+        if (end == 0 && value.length() > 0) {
+            constraint.checkLength(0);
+            return Array.newInstance(componentType, 0);
+        }
+
+        List<Chunk> chunks = getChunks(value, delimiter, end);
+        logger.trace("Decoding array of {} characters in {} chunks", end, chunks.size());
+
+        List<Callable<Integer>> countTasks = new ArrayList<Callable<Integer>>(chunks.size());
+        for (final Chunk chunk : chunks) {
+            countTasks.add(new Callable<Integer>() {
+                public Integer call() {
+                    return chunk.countElements(value, delimiter);
+                }
+            });
+        }
+        List<Future<Integer>> counts = invokeAll(countTasks);
+
+        int length = 0;
+        for (int index = 0; index < chunks.size(); index++) {
+            chunks.get(index).firstElementIndex = length;
+            length += getResult(counts.get(index));
+        }
+
+        constraint.checkLength(length);
+        final Object arr = Array.newInstance(componentType, length);
+
+        List<Callable<Integer>> decodeTasks = new ArrayList<Callable<Integer>>(chunks.size());
+        for (final Chunk chunk : chunks) {
+            decodeTasks.add(new Callable<Integer>() {
+                public Integer call() {
+                    return chunk.decodeElements(value, delimiter, componentType, constraint, arr);
+                }
+            });
+        }
+        for (Future<Integer> decoded : invokeAll(decodeTasks)) {
+            getResult(decoded);
+        }
+
+        return arr;
+    }
+
+    /*
+    Probe at evenly spaced positions and move each probe forward to the next delimiter, so that no element is shared by two chunks.
+    Every chunk starts right after a delimiter (or at 0) and ends right before a delimiter (or at the end of value)
+    */
+    private List<Chunk> getChunks(String value, String delimiter, int end) {
+        int chunkCount = Math.max(1, Math.min(Pool.PARALLELISM * 4, end / MIN_CHUNK_LENGTH));
+        List<Chunk> chunks = new ArrayList<Chunk>(chunkCount);
+
+        int chunkStart = 0;
+        for (int index = 1; index < chunkCount && chunkStart < end; index++) {
+            int probe = Math.max(chunkStart, (int) ((long) end * index / chunkCount));
+            int delimiterIndex = value.indexOf(delimiter, probe);
+            if (delimiterIndex == -1 || delimiterIndex >= end) {
+                break;
+            }
+            chunks.add(new Chunk(chunkStart, delimiterIndex));
+            chunkStart = delimiterIndex + delimiter.length();
+        }
+        chunks.add(new Chunk(chunkStart, end));
+
+        return chunks;
+    }
+
+    private static <T> List<Future<T>> invokeAll(List<Callable<T>> tasks) {
+        try {
+            return Pool.EXECUTOR.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while decoding array value", e);
+        }
+    }
+
+    private static <T> T getResult(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while decoding array value", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalArgumentException("Cannot decode array value (" + e.getCause() + ")", e.getCause());
+        }
+    }
+
+    private class Chunk {
+        private final int startIndex;
+        private final int endIndex;
+        private int firstElementIndex;
+
+        Chunk(int startIndex, int endIndex) {
+            this.startIndex = startIndex;
+            this.endIndex = endIndex;
+        }
+
+        int countElements(String value, String delimiter) {
+            int count = 1;
+            int index = startIndex;
+            while ((index = value.indexOf(delimiter, index)) != -1 && index + delimiter.length() <= endIndex) {
+                count++;
+                index += delimiter.length();
+            }
+            return count;
+        }
+
+        int decodeElements(String value, String delimiter, Class<?> componentType, ValueConstraint constraint, Object arr) {
+            int elementIndex = firstElementIndex;
+            int elementStart = startIndex;
+            int index;
+            while ((index = value.indexOf(delimiter, elementStart)) != -1 && index + delimiter.length() <= endIndex) {
+                fieldValueManager.setArrayElement(arr, elementIndex++, value.substring(elementStart, index).trim(), componentType, constraint);
+                elementStart = index + delimiter.length();
+            }
+            fieldValueManager.setArrayElement(arr, elementIndex++, value.substring(elementStart, endIndex).trim(), componentType, constraint);
+
+            return elementIndex - firstElementIndex;
+        }
+    }
+
+    /*
+    Lazily created, so that the threads are started only if any value is large enough to be decoded in parallel
+    */
+    private static class Pool {
+        private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+        private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(PARALLELISM, new ThreadFactory() {
+            private final AtomicInteger threadCount = new AtomicInteger();
+
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "argparse-array-decoder-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+}
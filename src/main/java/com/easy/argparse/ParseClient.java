@@ -0,0 +1,116 @@
+package com.easy.argparse;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class sends argument vectors to a {@link ParseServer} over its Unix domain socket and returns the parsed values. It keeps one
+ * connection open for any number of requests, so it is not thread-safe and a thread should use its own client <br>
+ * It can be run from a shell as well, e.g. {@code java com.easy.argparse.ParseClient /tmp/parse.sock tool -m 20 -s 45} prints one
+ * {@code variable=value} line per value (one per element of an array) and exits with status 1 and the message if the arguments could not be
+ * parsed
+ *
+ * @author himanshu_shekhar
+ */
+public class ParseClient {
+    private final SocketChannel channel;
+
+    /**
+     *
+     * @param socketFile Path of the socket the server listens at
+     * @throws IOException If the server could not be connected to
+     * @throws UnsupportedOperationException If Unix domain sockets are not available in this JVM
+     */
+    public ParseClient(File socketFile) throws IOException {
+        this.channel = UnixDomainSockets.connect(socketFile);
+    }
+
+    /**
+     *
+     * @param parserName The name the parser is registered by in the server
+     * @param args The values representing command line arguments
+     * @return Elements of the value of every variable in usage expression as text, by data variable name in the order of usage expression.
+     * A single element for a value which is not an array or collection, or null for null value
+     * @throws IOException If the request could not be sent or the response could not be read
+     * @throws IllegalArgumentException If the arguments could not be parsed, with the message of the server
+     */
+    public Map<String, List<String>> parse(String parserName, String[] args) throws IOException {
+        ParseFrames.FrameWriter request = new ParseFrames.FrameWriter().putString(parserName).putInt(args.length);
+        for (String arg : args) {
+            request.putString(arg);
+        }
+        ParseFrames.writeFrame(channel, request);
+
+        ByteBuffer response = ParseFrames.readFrame(channel);
+        if (response == null) {
+            throw new IOException("Server closed the connection without response");
+        }
+        if (response.get() == ParseFrames.STATUS_FAILED) {
+            throw new IllegalArgumentException(ParseFrames.getString(response));
+        }
+
+        int variableCount = response.getInt();
+        Map<String, List<String>> values = new LinkedHashMap<String, List<String>>();
+        for (int index = 0; index < variableCount; index++) {
+            String name = ParseFrames.getString(response);
+            int elementCount = response.getInt();
+            List<String> elements = null;
+            if (elementCount >= 0) {
+                elements = new ArrayList<String>(Math.min(elementCount, response.remaining() / 4));
+                for (int elementIndex = 0; elementIndex < elementCount; elementIndex++) {
+                    elements.add(ParseFrames.getString(response));
+                }
+                elements = Collections.unmodifiableList(elements);
+            }
+            values.put(name, elements);
+        }
+        return values;
+    }
+
+    /**
+     * Close the connection to the server
+     *
+     * @throws IOException If the connection could not be closed
+     */
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     *
+     * @param args Path of the socket, name of the parser, then the arguments to parse
+     * @throws IOException If the server could not be connected to
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: ParseClient socket-file parser-name [arguments...]");
+            System.exit(2);
+        }
+        String[] parsedArgs = new String[args.length - 2];
+        System.arraycopy(args, 2, parsedArgs, 0, parsedArgs.length);
+
+        ParseClient parseClient = new ParseClient(new File(args[0]));
+        try {
+            for (Map.Entry<String, List<String>> value : parseClient.parse(args[1], parsedArgs).entrySet()) {
+                if (value.getValue() == null) {
+                    continue;
+                }
+                for (String element : value.getValue()) {
+                    System.out.println(value.getKey() + "=" + element);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        } finally {
+            parseClient.close();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.easy.argparse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * This class reads and writes the frames exchanged by {@link ParseServer} and {@link ParseClient}. A frame is a 4 byte length followed by
+ * as many bytes of body, and all integers are big endian. A string is a 4 byte length followed by as many bytes of UTF-8 <br>
+ * Request body: name of the parser (string), number of arguments (int), then each argument (string) <br>
+ * Response body: status (byte), then for {@link #STATUS_FAILED} the message (string), or for {@link #STATUS_PARSED} the number of
+ * variables (int) followed, for each, by its name (string), number of elements (int, -1 for null) and each element (string)
+ *
+ * @author himanshu_shekhar
+ */
+final class ParseFrames {
+    static final byte STATUS_PARSED = 0;
+    static final byte STATUS_FAILED = 1;
+
+    /**
+     * Length of the largest frame accepted, so that a corrupt length cannot exhaust the memory
+     */
+    static final int MAXIMUM_FRAME_LENGTH = 16 * 1024 * 1024;
+
+    private static final String UTF_8 = "UTF-8";
+
+    private ParseFrames() {
+    }
+
+    /**
+     *
+     * @param channel The channel to read from
+     * @return Body of the frame, or null if the channel ended before the frame
+     * @throws IOException If the channel ended within the frame, or the frame is too long
+     */
+    static ByteBuffer readFrame(ReadableByteChannel channel) throws IOException {
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
+        if (!readFully(channel, lengthBuffer, true)) {
+            return null;
+        }
+        int length = lengthBuffer.getInt(0);
+        if (length < 0 || length > MAXIMUM_FRAME_LENGTH) {
+            throw new IOException("Frame length (" + length + ") is not within [0, " + MAXIMUM_FRAME_LENGTH + "]");
+        }
+        ByteBuffer body = ByteBuffer.allocate(length);
+        readFully(channel, body, false);
+        body.flip();
+        return body;
+    }
+
+    private static boolean readFully(ReadableByteChannel channel, ByteBuffer buffer, boolean endAllowed) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) == -1) {
+                if (endAllowed && buffer.position() == 0) {
+                    return false;
+                }
+                throw new EOFException("Channel ended within a frame");
+            }
+        }
+        return true;
+    }
+
+    /**
+     *
+     * @param channel The channel to write to
+     * @param body Body of the frame, as written by a {@link FrameWriter}
+     * @throws IOException If the frame could not be written
+     */
+    static void writeFrame(WritableByteChannel channel, FrameWriter body) throws IOException {
+        byte[] bytes = body.toByteArray();
+        ByteBuffer frame = ByteBuffer.allocate(4 + bytes.length);
+        frame.putInt(bytes.length).put(bytes).flip();
+        while (frame.hasRemaining()) {
+            channel.write(frame);
+        }
+    }
+
+    static String getString(ByteBuffer body) throws IOException {
+        int length = body.getInt();
+        if (length < 0 || length > body.remaining()) {
+            throw new IOException("String length (" + length + ") is not within the frame");
+        }
+        byte[] bytes = new byte[length];
+        body.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    /**
+     * Body of a frame being written
+     */
+    static class FrameWriter {
+        private final ByteArrayOutputStream bytes;
+        private final DataOutputStream output;
+
+        FrameWriter() {
+            this.bytes = new ByteArrayOutputStream();
+            this.output = new DataOutputStream(bytes);
+        }
+
+        FrameWriter putByte(int value) throws IOException {
+            output.writeByte(value);
+            return this;
+        }
+
+        FrameWriter putInt(int value) throws IOException {
+            output.writeInt(value);
+            return this;
+        }
+
+        FrameWriter putString(String value) throws IOException {
+            byte[] encoded = value.getBytes(UTF_8);
+            output.writeInt(encoded.length);
+            output.write(encoded);
+            return this;
+        }
+
+        int size() {
+            return output.size();
+        }
+
+        byte[] toByteArray() throws IOException {
+            output.flush();
+            return bytes.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.easy.argparse;
+
+import java.util.List;
+
+/**
+ * This class keeps the result of {@link ArgumentParser#parsePassingThrough(String[])}, i.e. the instance of data class along with the
+ * arguments which were not recognized and hence are to be passed through, e.g. to a child process
+ *
+ * @author himanshu_shekhar
+ */
+public class ParseResult {
+    private final Object data;
+    private final List<String> unrecognizedArguments;
+
+    ParseResult(Object data, List<String> unrecognizedArguments) {
+        this.data = data;
+        this.unrecognizedArguments = unrecognizedArguments;
+    }
+
+    /**
+     *
+     * @return The instance of data class with the recognized values set
+     */
+    public Object getData() {
+        return data;
+    }
+
+    /**
+     *
+     * @return A read-only view over the arguments which were not recognized, in order of their appearance. Since the arguments are not copied,
+     * any change made to the parsed array afterwards is visible through the view as well
+     */
+    public List<String> getUnrecognizedArguments() {
+        return unrecognizedArguments;
+    }
+}
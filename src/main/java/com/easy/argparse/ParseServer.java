@@ -0,0 +1,251 @@
+package com.easy.argparse;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channel;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This thread-safe class keeps compiled parsers resident and parses argument vectors sent over a Unix domain socket, so that a command run
+ * many times, e.g. by a shell script, pays for JVM startup and compilation of usage expression only once. A {@link ParseClient} sends the
+ * name a parser is registered by along with the arguments, and receives the parsed values as text, or the message of the error. See
+ * {@link ParseFrames} for the format <br>
+ * Every connection is served by its own thread and can send any number of requests. A connection made while as many connections as the
+ * limit are being served is closed right away. Unix domain sockets need Java 16 or later, and only processes which can access the socket
+ * file can connect
+ *
+ * @author himanshu_shekhar
+ */
+public class ParseServer {
+    private static final Logger logger = LoggerFactory.getLogger(ParseServer.class);
+    private static final int DEFAULT_MAXIMUM_CONNECTIONS = 64;
+    private static final long IDLE_THREAD_SECONDS = 60;
+
+    private final File socketFile;
+    private final ConcurrentMap<String, ArgumentParser> parserMap;
+    private final ExecutorService executor;
+
+    private ServerSocketChannel serverChannel;
+
+    /**
+     * Same as {@link #ParseServer(File, int)} with at most 64 connections served together
+     *
+     * @param socketFile Path of the socket to listen at, which must not exist when the server is started
+     */
+    public ParseServer(File socketFile) {
+        this(socketFile, DEFAULT_MAXIMUM_CONNECTIONS);
+    }
+
+    /**
+     *
+     * @param socketFile Path of the socket to listen at, which must not exist when the server is started
+     * @param maximumConnections Number of connections which can be served together, each by a thread of its own
+     * @throws IllegalArgumentException If maximumConnections is not positive
+     */
+    public ParseServer(File socketFile, int maximumConnections) {
+        if (maximumConnections < 1) {
+            throw new IllegalArgumentException("Maximum number of connections (" + maximumConnections + ") is not positive");
+        }
+        this.socketFile = socketFile;
+        this.parserMap = new ConcurrentHashMap<String, ArgumentParser>();
+        // One more thread for accepting the connections
+        this.executor = new ThreadPoolExecutor(0, maximumConnections + 1, IDLE_THREAD_SECONDS, TimeUnit.SECONDS,
+                new SynchronousQueue<Runnable>(), new ServerThreadFactory());
+    }
+
+    /**
+     * Register a parser to be used by the requests naming it. It is compiled right away, so the first request does not pay for it
+     *
+     * @param name The name which requests use for the parser
+     * @param argumentParser The parser
+     * @throws IllegalArgumentException If usage expression or data class of the parser is not valid
+     */
+    public void register(String name, ArgumentParser argumentParser) {
+        argumentParser.compile();
+        parserMap.put(name, argumentParser);
+    }
+
+    /**
+     * Start accepting connections in background
+     *
+     * @throws IOException If the socket could not be bound, e.g. because the socket file exists
+     * @throws UnsupportedOperationException If Unix domain sockets are not available in this JVM
+     */
+    public synchronized void start() throws IOException {
+        if (serverChannel != null) {
+            throw new IllegalStateException("Server is already started at " + socketFile);
+        }
+        final ServerSocketChannel channel = UnixDomainSockets.openServer(socketFile);
+        serverChannel = channel;
+        executor.execute(new Runnable() {
+            public void run() {
+                accept(channel);
+            }
+        });
+        logger.debug("Started parse server at {}", socketFile);
+    }
+
+    private void accept(ServerSocketChannel channel) {
+        try {
+            while (true) {
+                final SocketChannel clientChannel = channel.accept();
+                try {
+                    executor.execute(new Runnable() {
+                        public void run() {
+                            serve(clientChannel);
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    logger.warn("Closing connection to parse server at {}, as too many connections are being served", socketFile);
+                    close(clientChannel);
+                }
+            }
+        } catch (ClosedChannelException e) {
+            logger.trace("Parse server at {} is closed", socketFile);
+        } catch (IOException e) {
+            logger.warn("Got exception while accepting connections, stopping: {}", e);
+        }
+    }
+
+    private void serve(SocketChannel clientChannel) {
+        try {
+            ByteBuffer request;
+            while ((request = ParseFrames.readFrame(clientChannel)) != null) {
+                ParseFrames.writeFrame(clientChannel, getResponse(request));
+            }
+        } catch (IOException e) {
+            logger.debug("Closing connection after exception: {}", e.toString());
+        } finally {
+            close(clientChannel);
+        }
+    }
+
+    /*
+    Every request gets a response, even if it is malformed or the parser fails unexpectedly. Frames are length delimited, so the connection
+    is still in step for the next request. A response longer than a frame can be, e.g. a few short elements sent as many strings, would be
+    rejected by the client, so it is answered with a failure instead
+    */
+    private ParseFrames.FrameWriter getResponse(ByteBuffer request) throws IOException {
+        String name;
+        String[] args;
+        try {
+            name = ParseFrames.getString(request);
+            int argumentCount = request.getInt();
+            if (argumentCount < 0 || argumentCount > request.remaining() / 4) {
+                return getFailure("Number of arguments (" + argumentCount + ") is not within the frame");
+            }
+            args = new String[argumentCount];
+            for (int index = 0; index < argumentCount; index++) {
+                args[index] = ParseFrames.getString(request);
+            }
+        } catch (IOException e) {
+            return getFailure("Malformed request (" + e.getMessage() + ")");
+        } catch (BufferUnderflowException e) {
+            return getFailure("Malformed request (frame is truncated)");
+        }
+
+        ArgumentParser argumentParser = parserMap.get(name);
+        if (argumentParser == null) {
+            return getFailure("No parser registered as (" + name + ")");
+        }
+        try {
+            Object dataHolderObject = argumentParser.parse(args);
+            List<UsageToken> usageTokens = argumentParser.getUsageTokens();
+            ParseFrames.FrameWriter response = new ParseFrames.FrameWriter().putByte(ParseFrames.STATUS_PARSED).putInt(usageTokens.size());
+            for (UsageToken usageToken : usageTokens) {
+                response.putString(usageToken.getDataVariableName());
+                putValue(response, argumentParser.getFieldValue(usageToken, dataHolderObject));
+            }
+            if (response.size() > ParseFrames.MAXIMUM_FRAME_LENGTH) {
+                return getFailure("Response length (" + response.size() + ") exceeds the maximum frame length ("
+                        + ParseFrames.MAXIMUM_FRAME_LENGTH + ")");
+            }
+            return response;
+        } catch (IllegalArgumentException e) {
+            return getFailure(e.getMessage());
+        } catch (RuntimeException e) {
+            logger.warn("Got exception while parsing with parser {}: {}", name, e);
+            return getFailure("Cannot parse (" + e + ")");
+        }
+    }
+
+    private static ParseFrames.FrameWriter getFailure(String message) throws IOException {
+        return new ParseFrames.FrameWriter().putByte(ParseFrames.STATUS_FAILED).putString(String.valueOf(message));
+    }
+
+    /*
+    Arrays and collections are sent element by element, so that no delimiter needs to be escaped
+    */
+    private static void putValue(ParseFrames.FrameWriter response, Object value) throws IOException {
+        if (value == null) {
+            response.putInt(-1);
+        } else if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            response.putInt(length);
+            for (int index = 0; index < length; index++) {
+                response.putString(String.valueOf(Array.get(value, index)));
+            }
+        } else if (value instanceof Collection) {
+            Collection<?> elements = (Collection<?>) value;
+            response.putInt(elements.size());
+            for (Object element : elements) {
+                response.putString(String.valueOf(element));
+            }
+        } else {
+            response.putInt(1).putString(String.valueOf(value));
+        }
+    }
+
+    /**
+     * Stop accepting connections, close the connections being served and delete the socket file
+     */
+    public synchronized void close() {
+        if (serverChannel != null) {
+            close(serverChannel);
+            serverChannel = null;
+            if (!socketFile.delete()) {
+                logger.warn("Cannot delete socket file {}", socketFile);
+            }
+        }
+        executor.shutdownNow();
+    }
+
+    private static void close(Channel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.debug("Got exception while closing channel: {}", e.toString());
+        }
+    }
+
+    /*
+    Daemon threads, so that a server which is not closed does not keep the JVM running
+    */
+    private static class ServerThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "argparse-server-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.easy.argparse;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This thread-safe class keeps the instances of data class parsed from command line arguments, so that the same arguments parsed again are
+ * neither converted nor bound again. Arguments are looked up by a 64 bit hash of their content, and compared in full only when the hashes
+ * match. At most the specified number of instances are kept, the least recently used one being evicted first <br>
+ * An instance is returned as it is if its data class is annotated with {@link Immutable}, or else copied variable by variable. A cached
+ * instance is not used once the {@link Fallback} or {@link ConfigFileSource} values of its parser have changed. The same cache can be
+ * shared by several {@link ArgumentParser} instances
+ *
+ * @author himanshu_shekhar
+ */
+public class ParsedResultCache {
+    private static final Logger logger = LoggerFactory.getLogger(ParsedResultCache.class);
+
+    private final int maximumSize;
+    private final Map<ArgumentsKey, CachedResult> resultMap;
+    private final AtomicLong hitCount;
+    private final AtomicLong missCount;
+    private final AtomicLong evictionCount;
+
+    /**
+     *
+     * @param maximumSize The maximum number of parsed instances to keep
+     * @throws IllegalArgumentException If maximum size is not positive
+     */
+    public ParsedResultCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive (" + maximumSize + ")");
+        }
+        this.maximumSize = maximumSize;
+        this.resultMap = new LinkedHashMap<ArgumentsKey, CachedResult>(16, 0.75f, true);
+        this.hitCount = new AtomicLong();
+        this.missCount = new AtomicLong();
+        this.evictionCount = new AtomicLong();
+    }
+
+    /**
+     *
+     * @param argumentParser The parser which parsed the arguments
+     * @param args The command line arguments, which are not kept
+     * @param fallbackState Identity of the fallback values the parser would add now
+     * @return The cached instance of data class, or null if there is none
+     */
+    Object get(ArgumentParser argumentParser, String[] args, Object fallbackState) {
+        CachedResult cachedResult;
+        synchronized (resultMap) {
+            cachedResult = resultMap.get(new ArgumentsKey(argumentParser, args));
+        }
+        if (cachedResult == null || cachedResult.fallbackState != fallbackState) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        return cachedResult.dataHolderObject;
+    }
+
+    /**
+     *
+     * @param argumentParser The parser which parsed the arguments
+     * @param args The command line arguments, which must not be modified afterwards
+     * @param fallbackState Identity of the fallback values the parser added
+     * @param dataHolderObject The instance of data class parsed from the arguments
+     */
+    void put(ArgumentParser argumentParser, String[] args, Object fallbackState, Object dataHolderObject) {
+        ArgumentsKey key = new ArgumentsKey(argumentParser, args);
+        synchronized (resultMap) {
+            resultMap.put(key, new CachedResult(fallbackState, dataHolderObject));
+            evict();
+        }
+    }
+
+    /*
+    Iteration order of the access ordered map is least recently used first
+    */
+    private void evict() {
+        Iterator<ArgumentsKey> iterator = resultMap.keySet().iterator();
+        while (resultMap.size() > maximumSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictionCount.incrementAndGet();
+            logger.trace("Evicted cached result");
+        }
+    }
+
+    /**
+     * Remove all the cached instances. The hit, miss and eviction counts are not reset
+     */
+    public void clear() {
+        synchronized (resultMap) {
+            resultMap.clear();
+        }
+    }
+
+    /**
+     *
+     * @return Number of instances currently cached
+     */
+    public int size() {
+        synchronized (resultMap) {
+            return resultMap.size();
+        }
+    }
+
+    /**
+     *
+     * @return Number of times arguments were found in the cache
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     *
+     * @return Number of times arguments were not found in the cache, and hence had to be parsed
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     *
+     * @return Number of instances removed to keep the cache within its size
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    private static class CachedResult {
+        private final Object fallbackState;
+        private final Object dataHolderObject;
+
+        CachedResult(Object fallbackState, Object dataHolderObject) {
+            this.fallbackState = fallbackState;
+            this.dataHolderObject = dataHolderObject;
+        }
+    }
+
+    private static class ArgumentsKey {
+        private final ArgumentParser argumentParser;
+        private final String[] args;
+        private final long fingerprint;
+
+        ArgumentsKey(ArgumentParser argumentParser, String[] args) {
+            this.argumentParser = argumentParser;
+            this.args = args;
+            this.fingerprint = getFingerprint(args);
+        }
+
+        /*
+        FNV-1a over the characters, with the length of every argument mixed in so that e.g. ("ab", "c") and ("a", "bc") differ
+        */
+        private static long getFingerprint(String[] args) {
+            long hash = 0xcbf29ce484222325L;
+            for (String arg : args) {
+                hash = (hash ^ arg.length()) * 0x100000001b3L;
+                for (int index = 0; index < arg.length(); index++) {
+                    hash = (hash ^ arg.charAt(index)) * 0x100000001b3L;
+                }
+            }
+            return hash;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 7;
+            hash = 59 * hash + System.identityHashCode(argumentParser);
+            hash = 59 * hash + (int) (fingerprint ^ (fingerprint >>> 32));
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final ArgumentsKey other = (ArgumentsKey) obj;
+
+            return argumentParser == other.argumentParser && fingerprint == other.fingerprint && Arrays.equals(args, other.args);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.easy.argparse;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Constrains the value of a numeric field (or every element of a numeric array) in the data class to given bounds, both inclusive. For
+ * example, {@code @Range(min = 1, max = 65535) private int port;} <br>
+ * A {@code float} or {@code double} field can have fractional bounds as well, e.g. {@code @Range(decimalMin = 0, decimalMax = 0.5) private
+ * double ratio;}, and its value must be within both kinds of bounds. NaN is never within the range
+ *
+ * @author himanshu_shekhar
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Range {
+
+    /**
+     *
+     * @return The minimum allowed value
+     */
+    long min() default Long.MIN_VALUE;
+
+    /**
+     *
+     * @return The maximum allowed value
+     */
+    long max() default Long.MAX_VALUE;
+
+    /**
+     *
+     * @return The minimum allowed value of a {@code float} or {@code double} field, which can be fractional
+     */
+    double decimalMin() default Double.NEGATIVE_INFINITY;
+
+    /**
+     *
+     * @return The maximum allowed value of a {@code float} or {@code double} field, which can be fractional
+     */
+    double decimalMax() default Double.POSITIVE_INFINITY;
+}
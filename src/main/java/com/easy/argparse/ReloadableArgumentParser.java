@@ -0,0 +1,109 @@
+package com.easy.argparse;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This thread-safe class parses command line arguments as per a usage expression which can be replaced while parses are in progress, e.g.
+ * when the usage expression is loaded from a configuration which changes. A new usage expression is compiled by the thread reloading it, and
+ * only a successfully compiled {@link ArgumentParser} is published. Every parse uses the parser published when it started, so a parse in
+ * progress finishes as per the old usage expression while new parses use the new one. Neither parses nor reloads take any lock
+ *
+ * @author himanshu_shekhar
+ */
+public class ReloadableArgumentParser {
+    private static final Logger logger = LoggerFactory.getLogger(ReloadableArgumentParser.class);
+
+    private final Class<?> dataClass;
+    private final String arrayDelimiter;
+
+    private volatile ArgumentParser argumentParser;
+
+    /**
+     *
+     * @param usageExpression The expression representing format in which command line arguments will be specified, as described in
+     * {@link ArgumentParser}
+     * @param dataHolderClass The class which will contain the values specified in command line arguments, as described in {@link ArgumentParser}
+     * @throws IllegalArgumentException If usage expression or data class is not valid
+     */
+    public ReloadableArgumentParser(String usageExpression, Class<?> dataHolderClass) {
+        this(usageExpression, dataHolderClass, ",");
+    }
+
+    /**
+     *
+     * @param usageExpression As described above
+     * @param dataHolderClass As described above
+     * @param arrayDelimiter The delimiter text which will be used to determine the array specified in command line argument
+     * @throws IllegalArgumentException If usage expression or data class is not valid
+     */
+    public ReloadableArgumentParser(String usageExpression, Class<?> dataHolderClass, String arrayDelimiter) {
+        this.dataClass = dataHolderClass;
+        this.arrayDelimiter = arrayDelimiter;
+        this.argumentParser = getCompiledParser(usageExpression);
+    }
+
+    /**
+     * Compile the given usage expression and publish it for parses started afterwards. Settings of current parser, like the value cache, are
+     * carried over. If the usage expression is not valid, the current one is kept
+     *
+     * @param usageExpression The new usage expression
+     * @throws IllegalArgumentException If usage expression is not valid for the data class
+     */
+    public void reload(String usageExpression) {
+        ArgumentParser reloadedParser = getCompiledParser(usageExpression);
+        reloadedParser.copySettings(argumentParser);
+        argumentParser = reloadedParser;
+        logger.debug("Reloaded usage expression: {}", usageExpression);
+    }
+
+    /**
+     * Publish the given parser for parses started afterwards. It is compiled first, if not already done
+     *
+     * @param reloadedParser The parser to use from now on, configured as needed
+     * @throws IllegalArgumentException If usage expression of the parser is not valid
+     */
+    public void reload(ArgumentParser reloadedParser) {
+        reloadedParser.compile();
+        argumentParser = reloadedParser;
+    }
+
+    private ArgumentParser getCompiledParser(String usageExpression) {
+        ArgumentParser compiledParser = new ArgumentParser(usageExpression, dataClass, arrayDelimiter);
+        compiledParser.compile();
+        return compiledParser;
+    }
+
+    /**
+     *
+     * @return The parser currently used, e.g. to change its settings
+     */
+    public ArgumentParser getArgumentParser() {
+        return argumentParser;
+    }
+
+    /**
+     *
+     * @param args The values representing command line arguments
+     * @return A new instance of data class with values available in {@code args} set as per the current usage expression
+     * @see ArgumentParser#parse(String[])
+     */
+    public Object parse(String[] args) {
+        return argumentParser.parse(args);
+    }
+
+    /**
+     *
+     * @param channel The channel to read NUL ({@code \0}) delimited arguments from
+     * @param charset The character set in which arguments are encoded
+     * @return A new instance of data class with values available in {@code channel} set as per the current usage expression
+     * @throws IOException If the arguments could not be read from the channel
+     * @see ArgumentParser#parse(ReadableByteChannel, Charset)
+     */
+    public Object parse(ReadableByteChannel channel, Charset charset) throws IOException {
+        return argumentParser.parse(channel, charset);
+    }
+}
@@ -0,0 +1,119 @@
+package com.easy.argparse;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+/**
+ * This class opens Unix domain socket channels, which are available from Java 16. These are opened reflectively, so that this library still
+ * compiles for and runs on older JVMs, where {@link #isSupported()} is false. Once open, the channels are the usual {@link SocketChannel}
+ * and {@link ServerSocketChannel}
+ *
+ * @author himanshu_shekhar
+ */
+final class UnixDomainSockets {
+    private static final ProtocolFamily UNIX = getUnixProtocolFamily();
+
+    private UnixDomainSockets() {
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ProtocolFamily getUnixProtocolFamily() {
+        try {
+            Class protocolFamilyClass = Class.forName("java.net.StandardProtocolFamily");
+            Class.forName("java.net.UnixDomainSocketAddress");
+            return (ProtocolFamily) Enum.valueOf(protocolFamilyClass, "UNIX");
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     *
+     * @return If Unix domain sockets are available in this JVM
+     */
+    static boolean isSupported() {
+        return UNIX != null;
+    }
+
+    /**
+     *
+     * @param socketFile Path of the socket, which must not exist yet
+     * @return A server channel bound to the path
+     * @throws IOException If the channel could not be opened or bound
+     */
+    static ServerSocketChannel openServer(File socketFile) throws IOException {
+        ServerSocketChannel serverChannel = (ServerSocketChannel) invoke(ServerSocketChannel.class, null, "open", ProtocolFamily.class,
+                getUnix());
+        try {
+            invoke(ServerSocketChannel.class, serverChannel, "bind", SocketAddress.class, getAddress(socketFile));
+        } catch (IOException e) {
+            serverChannel.close();
+            throw e;
+        }
+        return serverChannel;
+    }
+
+    /**
+     *
+     * @param socketFile Path of the socket a server is bound to
+     * @return A channel connected to the server
+     * @throws IOException If the channel could not be opened or connected
+     */
+    static SocketChannel connect(File socketFile) throws IOException {
+        SocketChannel channel = (SocketChannel) invoke(SocketChannel.class, null, "open", ProtocolFamily.class, getUnix());
+        try {
+            channel.connect(getAddress(socketFile));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return channel;
+    }
+
+    private static ProtocolFamily getUnix() {
+        if (UNIX == null) {
+            throw new UnsupportedOperationException("Unix domain sockets are not available in Java " + System.getProperty("java.version"));
+        }
+        return UNIX;
+    }
+
+    private static SocketAddress getAddress(File socketFile) throws IOException {
+        try {
+            return (SocketAddress) invoke(Class.forName("java.net.UnixDomainSocketAddress"), null, "of", String.class,
+                    socketFile.getPath());
+        } catch (ClassNotFoundException e) {
+            throw new UnsupportedOperationException("Unix domain sockets are not available (" + e.getMessage() + ")");
+        }
+    }
+
+    /*
+    Exceptions thrown by the method are rethrown as they are, so that callers see the IOException of a failed bind or connect
+    */
+    private static Object invoke(Class<?> type, Object target, String name, Class<?> parameterType, Object argument) throws IOException {
+        try {
+            Method method = type.getMethod(name, parameterType);
+            return method.invoke(target, argument);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Cannot invoke " + type.getName() + "." + name + " (" + cause + ")", cause);
+        } catch (NoSuchMethodException e) {
+            throw new UnsupportedOperationException("Unix domain sockets are not available (" + e.getMessage() + ")");
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access " + type.getName() + "." + name + " (" + e.getMessage() + ")", e);
+        }
+    }
+}
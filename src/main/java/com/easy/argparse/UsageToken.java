@@ -18,12 +18,22 @@ public class UsageToken {
     private final String optionAliasName;
     private final String dataVariableName;
 
+    /**
+     * 
+     * @param dataVariableName The name corresponding to variable in data class, e.g. {@code files} is data variable name in usage expression
+     * {@code -m minute files...}
+     * @return Usage token representing the operands which are available in command line arguments after the options
+     */
+    public static UsageToken newOperandUsageToken(String dataVariableName) {
+        return new UsageToken(null, null, dataVariableName);
+    }
+    
     /**
      * 
      * @param optionName The option switch, e.g. {@code m} is an option name in usage expression {@code -m minute [-s seconds]}
      * @param optionAliasName The alias if any for the option, e.g. {@code min} is an alias in usage expression {@code -m|--min minute [-s seconds]}
      * @param dataVariableName The name corresponding to variable in data class, e.g. {@code minute} is data variable name in usage expression
-     * {@code -m minute [-s seconds]}
+     * {@code -m minute [-s seconds]}. It can be a path through nested objects separated by {@code .}, e.g. {@code db.host}
      */
     public UsageToken(String optionName, String optionAliasName, String dataVariableName) {
         this.optionName = optionName;
@@ -46,6 +56,14 @@ public class UsageToken {
         return optionAliasName;
     }
 
+    /**
+     * 
+     * @return If this usage token represents the operands instead of an option
+     */
+    public boolean isOperand() {
+        return optionName == null;
+    }
+
     /**
      * 
      * @return The name of corresponding variable name in the data class
@@ -62,7 +80,7 @@ public class UsageToken {
      */
     public Field getMappedField(Class<?> dataClass){
         try{
-            return dataClass.getDeclaredField(dataVariableName);
+            return findField(dataClass, dataVariableName);
         }catch(NoSuchFieldException e){
             logger.warn("Got exception while looking for field {} in the data class: {}", dataVariableName, e);
             throw new IllegalArgumentException("Cannot find variable " + dataClass.getName() + ":" + dataVariableName, e);
@@ -82,7 +100,8 @@ public class UsageToken {
         String setterMethodName = getSetterMethodName();
         Method setterMethod;
         try{
-            setterMethod = dataClass.getDeclaredMethod(setterMethodName, getMappedField(dataClass).getType());
+            Field field = getMappedField(dataClass);
+            setterMethod = field.getDeclaringClass().getDeclaredMethod(setterMethodName, field.getType());
             if(!setterMethod.isAccessible()){
                 setterMethod.setAccessible(true);
             }
@@ -97,11 +116,30 @@ public class UsageToken {
         return setterMethod;
     }
     
+    /**
+     * 
+     * @param dataClass The data class which will keep the values available in command line arguments
+     * @param dataVariableName Name of variable in data class, or a path through nested objects separated by {@code .}
+     * @return The field which the name refers to, declared in data class or in the class of a nested object
+     * @throws NoSuchFieldException If any field along the path could not be found
+     */
+    static Field findField(Class<?> dataClass, String dataVariableName) throws NoSuchFieldException {
+        Class<?> declaringClass = dataClass;
+        int start = 0;
+        int end;
+        while ((end = dataVariableName.indexOf('.', start)) != -1) {
+            declaringClass = declaringClass.getDeclaredField(dataVariableName.substring(start, end)).getType();
+            start = end + 1;
+        }
+        return declaringClass.getDeclaredField(dataVariableName.substring(start));
+    }
+    
     private String getSetterMethodName() {
+        String variableName = dataVariableName.substring(dataVariableName.lastIndexOf('.') + 1);
         StringBuilder setterMethodName = new StringBuilder();
         setterMethodName.append("set");
-        setterMethodName.append(Character.toUpperCase(dataVariableName.charAt(0)));
-        setterMethodName.append(dataVariableName.substring(1, dataVariableName.length()));
+        setterMethodName.append(Character.toUpperCase(variableName.charAt(0)));
+        setterMethodName.append(variableName.substring(1, variableName.length()));
 
         return setterMethodName.toString();
     }
@@ -128,6 +166,10 @@ public class UsageToken {
         }
         final UsageToken other = (UsageToken) obj;
         
+        if (isOperand() || other.isOperand()) {
+            return isOperand() == other.isOperand() && other.getDataVariableName().equals(dataVariableName);
+        }
+        
         return other.getDataVariableName().equals(dataVariableName) &&
                 (other.getOptionName().equals(optionName) || other.getOptionName().equals(optionAliasName));
     }
@@ -2,30 +2,34 @@ package com.easy.argparse;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * This thread-safe class extracts and manages the mandatory and optional usage tokens from given usage expression
+ * This thread-safe class extracts and manages the mandatory and optional usage tokens from given usage expression. Once initialized, the usage
+ * tokens are never modified, so these can be read without locking
  * 
  * @author himanshu_shekhar
  */
 public class UsageTokenManager {
 
     private static final Logger logger = LoggerFactory.getLogger(UsageTokenManager.class);
+    private static final Pattern USAGE_TOKEN_PATTERN = Pattern.compile(
+            "[-]{1,2}([a-zA-Z0-9_]+(?:\\.[a-zA-Z0-9_]+)*)([ ]?\\|[ ]?[-]{1,2}([a-zA-Z0-9_]+(?:\\.[a-zA-Z0-9_]+)*))? "
+            + "([a-zA-Z$_][a-zA-Z$_0-9]*(?:\\.[a-zA-Z$_][a-zA-Z$_0-9]*)*)");
+    private static final Pattern OPERAND_PATTERN = Pattern.compile("(?<![^ ])([a-zA-Z$_][a-zA-Z$_0-9]*)\\.\\.\\.");
     
     private final String usageExpression;
     private final Class<?> dataClass;
-    private final Map<UsageToken, Method> setterMethodMap;
 
-    private List<UsageToken> mandatoryUsageTokens;
-    private List<UsageToken> optionalUsageTokens;
+    private volatile TokenSet tokenSet;
 
     /**
      * 
@@ -35,17 +39,14 @@ public class UsageTokenManager {
     public UsageTokenManager(String usageExpression, Class<?> dataClass) {
         this.usageExpression = usageExpression;
         this.dataClass = dataClass;
-        this.setterMethodMap = new ConcurrentHashMap<UsageToken, Method>();
-        this.mandatoryUsageTokens = new ArrayList<UsageToken>();
-        this.optionalUsageTokens = new ArrayList<UsageToken>();
+        this.tokenSet = new TokenSet(new ArrayList<UsageToken>(), new ArrayList<UsageToken>(), null, new HashMap<UsageToken, BindingPath>(),
+                new OptionSuggester(new ArrayList<String>()));
     }
 
     private static List<UsageToken> getUsageTokens(String usageExpression) {
-        // example: --day|-d DAY -time | -t TIME -f FILE
+        // example: --day|-d DAY -time | -t TIME -f FILE --db.host db.host
         logger.trace("Parsing ({}) for usage tokens", usageExpression);
-        String regex = "[-]{1,2}([a-zA-Z0-9_]+)([ ]?\\|[ ]?[-]{1,2}([a-zA-Z0-9_]+))? ([a-zA-Z$_][a-zA-Z$_0-9]*)";
-        Pattern pattern = Pattern.compile(regex);
-        Matcher matcher = pattern.matcher(usageExpression);
+        Matcher matcher = USAGE_TOKEN_PATTERN.matcher(usageExpression);
 
         List<UsageToken> usageTokens = new ArrayList<UsageToken>();
 
@@ -56,36 +57,100 @@ public class UsageTokenManager {
             usageTokens.add(new UsageToken(optionName, optionAliasName, dataVariableName));
             logger.trace("Found usage token: option = {}, alias = {}, variable name = {}", optionName, optionAliasName, dataVariableName);
         }
+        
+        // example: -f FILE files...
+        Matcher operandMatcher = OPERAND_PATTERN.matcher(usageExpression);
+        while (operandMatcher.find()) {
+            String dataVariableName = operandMatcher.group(1);
+            usageTokens.add(UsageToken.newOperandUsageToken(dataVariableName));
+            logger.trace("Found operand usage token: variable name = {}", dataVariableName);
+        }
 
         return usageTokens;
     }
 
     /**
-     * Initialize and update the data structures representing mandatory and optional usage tokens
+     * Initialize and update the data structures representing mandatory and optional usage tokens. These are replaced all at once, so the other
+     * methods never see partially updated usage tokens and need no locking
      */
     public synchronized void initialize() {
-        reset();
-        
         UsageExpressionExtractor usageExpressionExtractor = new UsageExpressionExtractor(usageExpression);
-        mandatoryUsageTokens = getUsageTokens(usageExpressionExtractor.getMandatoryExpression());
-        optionalUsageTokens = getUsageTokens(usageExpressionExtractor.getOptionalExpression());
-        updateSetterMethodMap(dataClass);
+        List<UsageToken> mandatoryUsageTokens = getUsageTokens(usageExpressionExtractor.getMandatoryExpression());
+        List<UsageToken> optionalUsageTokens = getUsageTokens(usageExpressionExtractor.getOptionalExpression());
+        UsageToken operandUsageToken = getOperandUsageToken(mandatoryUsageTokens, optionalUsageTokens);
+        
+        Map<UsageToken, BindingPath> bindingPathMap = new HashMap<UsageToken, BindingPath>();
+        updateBindingPathMap(bindingPathMap, mandatoryUsageTokens);
+        updateBindingPathMap(bindingPathMap, optionalUsageTokens);
+        
+        List<String> optionNames = new ArrayList<String>();
+        updateOptionNames(optionNames, mandatoryUsageTokens);
+        updateOptionNames(optionNames, optionalUsageTokens);
+        
+        tokenSet = new TokenSet(mandatoryUsageTokens, optionalUsageTokens, operandUsageToken, bindingPathMap, new OptionSuggester(optionNames));
     }
     
-    private void reset(){
-        mandatoryUsageTokens.clear();
-        optionalUsageTokens.clear();
-        setterMethodMap.clear();
+    private void updateOptionNames(List<String> optionNames, List<UsageToken> usageTokens) {
+        for (UsageToken usageToken : usageTokens) {
+            if (usageToken.getOptionName() != null) {
+                optionNames.add(usageToken.getOptionName());
+            }
+            if (usageToken.getOptionAliasName() != null) {
+                optionNames.add(usageToken.getOptionAliasName());
+            }
+        }
     }
-
-    private void updateSetterMethodMap(Class<?> dataClass) {
-        updateSetterMethodMap(dataClass, mandatoryUsageTokens);
-        updateSetterMethodMap(dataClass, optionalUsageTokens);
+    
+    private UsageToken getOperandUsageToken(List<UsageToken> mandatoryUsageTokens, List<UsageToken> optionalUsageTokens) {
+        List<UsageToken> usageTokens = new ArrayList<UsageToken>(mandatoryUsageTokens);
+        usageTokens.addAll(optionalUsageTokens);
+        
+        UsageToken operandUsageToken = null;
+        for (UsageToken usageToken : usageTokens) {
+            if (!usageToken.isOperand()) {
+                continue;
+            }
+            if (operandUsageToken != null) {
+                throw new IllegalArgumentException("More than one operand (" + operandUsageToken.getDataVariableName() + ", "
+                        + usageToken.getDataVariableName() + ") in usage expression (" + usageExpression + ")");
+            }
+            operandUsageToken = usageToken;
+        }
+        
+        // Operands are whatever is left after the options, so the operand has to be the last in usage expression
+        if (operandUsageToken != null && !isLastUsageToken(operandUsageToken)) {
+            throw new IllegalArgumentException("Operand (" + operandUsageToken.getDataVariableName() + "...) is not the last in usage expression ("
+                    + usageExpression + ")");
+        }
+        
+        return operandUsageToken;
+    }
+    
+    /*
+    Compare the positions of tokens in the whole usage expression rather than its text, so the brackets around the optional
+    expressions and the spacing do not matter: the operand has to start after the end of every option
+    */
+    private boolean isLastUsageToken(UsageToken operandUsageToken) {
+        // Unlike in the extracted expressions, the operand can follow an opening square bracket here
+        Matcher operandMatcher = Pattern.compile("(?<![^ \\[])" + Pattern.quote(operandUsageToken.getDataVariableName()) + "\\.\\.\\.")
+                .matcher(usageExpression);
+        int operandStartIndex = -1;
+        while (operandMatcher.find()) {
+            operandStartIndex = operandMatcher.start();
+        }
+        
+        Matcher matcher = USAGE_TOKEN_PATTERN.matcher(usageExpression);
+        while (matcher.find()) {
+            if (matcher.end() > operandStartIndex) {
+                return false;
+            }
+        }
+        return true;
     }
 
-    private void updateSetterMethodMap(Class<?> dataClass, List<UsageToken> usageTokens) {
+    private void updateBindingPathMap(Map<UsageToken, BindingPath> bindingPathMap, List<UsageToken> usageTokens) {
         for (UsageToken usageToken : usageTokens) {
-            setterMethodMap.put(usageToken, usageToken.getSetterMethod(dataClass));
+            bindingPathMap.put(usageToken, new BindingPath(dataClass, usageToken));
         }
     }
 
@@ -93,10 +158,11 @@ public class UsageTokenManager {
      * Validate the data class for mandatory and optional usage tokens
      * @throws IllegalArgumentException If data class is not valid
      */
-    public synchronized void validateVariableNames() {
+    public void validateVariableNames() {
+        TokenSet currentTokenSet = tokenSet;
         DataClassValidator dataClassValidator = new DataClassValidator(dataClass);
-        dataClassValidator.validateVariableNames(mandatoryUsageTokens);
-        dataClassValidator.validateVariableNames(optionalUsageTokens);
+        dataClassValidator.validateVariableNames(currentTokenSet.mandatoryUsageTokens);
+        dataClassValidator.validateVariableNames(currentTokenSet.optionalUsageTokens);
     }
 
     /**
@@ -104,9 +170,9 @@ public class UsageTokenManager {
      * @param availableUsageTokens Set of usage options as available in the command line arguments
      * @return If any of the mandatory options is missing
      */
-    public synchronized boolean isMissingMandatoryOption(Set<UsageToken> availableUsageTokens) {
+    public boolean isMissingMandatoryOption(Set<UsageToken> availableUsageTokens) {
         boolean missing = false;
-        for (UsageToken usageToken : mandatoryUsageTokens) {
+        for (UsageToken usageToken : tokenSet.mandatoryUsageTokens) {
             if (!availableUsageTokens.contains(usageToken)) {
                 missing = true;
                 break;
@@ -120,31 +186,68 @@ public class UsageTokenManager {
      * 
      * @param option The option as present in the usage expression, e.g. {@code m} in usage expression {@code -m minute [-s seconds]} is an option
      * @return Corresponding usage token
-     * @throws IllegalArgumentException If corresponding usage token could not be found
+     * @throws IllegalArgumentException If corresponding usage token could not be found, with the closest options if there are any
      */
-    public synchronized UsageToken findUsageToken(String option) {
-        UsageToken foundUsageToken = findUsageToken(option, mandatoryUsageTokens);
+    public UsageToken findUsageToken(String option) {
+        UsageToken foundUsageToken = findUsageToken(option, 0, option.length());
         if (foundUsageToken == null) {
-            foundUsageToken = findUsageToken(option, optionalUsageTokens);
+            List<String> suggestions = tokenSet.optionSuggester.suggest(option);
+            throw new IllegalArgumentException("No usage definition could be found for option (" + option + ")" 
+                    + (suggestions.isEmpty() ? "" : ", did you mean " + suggestions + "?"));
         }
+        return foundUsageToken;
+    }
+    
+    /**
+     * Same as {@link #findUsageToken(String)}, but the option is given as a region of the argument so that no substring need be created
+     * 
+     * @param argument The command line argument containing the option, e.g. {@code --min=20}
+     * @param start Index of first character of the option in the argument, inclusive
+     * @param end Index of last character of the option in the argument, exclusive
+     * @return Corresponding usage token, or null if none could be found
+     */
+    public UsageToken findUsageToken(String argument, int start, int end) {
+        TokenSet currentTokenSet = tokenSet;
+        UsageToken foundUsageToken = findUsageToken(argument, start, end, currentTokenSet.mandatoryUsageTokens);
         if (foundUsageToken == null) {
-            throw new IllegalArgumentException("No usage definition could be found for option (" + option + ")");
+            foundUsageToken = findUsageToken(argument, start, end, currentTokenSet.optionalUsageTokens);
         }
         return foundUsageToken;
     }
 
+    /**
+     * 
+     * @return All the usage tokens, mandatory ones followed by optional ones
+     */
+    public List<UsageToken> getUsageTokens() {
+        TokenSet currentTokenSet = tokenSet;
+        List<UsageToken> usageTokens = new ArrayList<UsageToken>(currentTokenSet.mandatoryUsageTokens);
+        usageTokens.addAll(currentTokenSet.optionalUsageTokens);
+        return usageTokens;
+    }
+
+    /**
+     * 
+     * @return The usage token representing operands, e.g. {@code files...} in usage expression {@code -m minute files...}, or null if the
+     * usage expression does not accept operands
+     */
+    public UsageToken getOperandUsageToken() {
+        return tokenSet.operandUsageToken;
+    }
+
     /**
      * 
      * @return If no valid usage tokens could be found in the given usage expression
      */
-    public synchronized boolean noTokensAvailable() {
-        return mandatoryUsageTokens.isEmpty() && optionalUsageTokens.isEmpty();
+    public boolean noTokensAvailable() {
+        TokenSet currentTokenSet = tokenSet;
+        return currentTokenSet.mandatoryUsageTokens.isEmpty() && currentTokenSet.optionalUsageTokens.isEmpty();
     }
 
-    private UsageToken findUsageToken(String option, List<UsageToken> usageTokens) {
+    private UsageToken findUsageToken(String argument, int start, int end, List<UsageToken> usageTokens) {
         UsageToken foundUsageToken = null;
         for (UsageToken usageToken : usageTokens) {
-            if (option.equals(usageToken.getOptionName()) || option.equals(usageToken.getOptionAliasName())) {
+            if (regionEquals(argument, start, end, usageToken.getOptionName()) || regionEquals(argument, start, end, usageToken.getOptionAliasName())) {
                 foundUsageToken = usageToken;
                 break;
             }
@@ -152,6 +255,10 @@ public class UsageTokenManager {
 
         return foundUsageToken;
     }
+    
+    private static boolean regionEquals(String argument, int start, int end, String optionName) {
+        return optionName != null && optionName.length() == end - start && argument.regionMatches(start, optionName, 0, end - start);
+    }
 
     /**
      * 
@@ -159,6 +266,35 @@ public class UsageTokenManager {
      * @return The setter method in specified data class corresponding to given usage token
      */
     public Method getSetterMethod(UsageToken usageToken) {
-        return setterMethodMap.get(usageToken);
+        return tokenSet.bindingPathMap.get(usageToken).getSetterMethod();
+    }
+    
+    /**
+     * 
+     * @param usageToken The usage token corresponding to the option
+     * @return The path through nested objects of data class to the variable of given usage token
+     */
+    BindingPath getBindingPath(UsageToken usageToken) {
+        return tokenSet.bindingPathMap.get(usageToken);
+    }
+    
+    /*
+    Immutable snapshot of the usage tokens, replaced as a whole by initialize()
+    */
+    private static class TokenSet {
+        private final List<UsageToken> mandatoryUsageTokens;
+        private final List<UsageToken> optionalUsageTokens;
+        private final UsageToken operandUsageToken;
+        private final Map<UsageToken, BindingPath> bindingPathMap;
+        private final OptionSuggester optionSuggester;
+
+        TokenSet(List<UsageToken> mandatoryUsageTokens, List<UsageToken> optionalUsageTokens, UsageToken operandUsageToken,
+                Map<UsageToken, BindingPath> bindingPathMap, OptionSuggester optionSuggester) {
+            this.mandatoryUsageTokens = Collections.unmodifiableList(mandatoryUsageTokens);
+            this.optionalUsageTokens = Collections.unmodifiableList(optionalUsageTokens);
+            this.operandUsageToken = operandUsageToken;
+            this.bindingPathMap = Collections.unmodifiableMap(bindingPathMap);
+            this.optionSuggester = optionSuggester;
+        }
     }
 }
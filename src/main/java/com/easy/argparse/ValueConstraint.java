@@ -0,0 +1,174 @@
+package com.easy.argparse;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * This immutable class checks a value converted for a usage token against the constraints ({@link Range}, {@link Length} and
+ * {@link Matches}) declared on the corresponding field of data class. It is compiled once per usage token, and the checks are applied to the
+ * primitive value while converting it, so a violation stops the parse before anything is boxed or set in the data class
+ *
+ * @author himanshu_shekhar
+ */
+class ValueConstraint {
+    private static final Set<Class<?>> NUMERIC_TYPES = new HashSet<Class<?>>(Arrays.asList(new Class<?>[]
+    {
+        byte.class, Byte.class,
+        short.class, Short.class,
+        int.class, Integer.class,
+        long.class, Long.class,
+        float.class, Float.class,
+        double.class, Double.class
+    }));
+    private static final Set<Class<?>> FLOATING_POINT_TYPES = new HashSet<Class<?>>(Arrays.asList(new Class<?>[]
+    {
+        float.class, Float.class,
+        double.class, Double.class
+    }));
+
+    /**
+     * Constraint of a field without any constraint declared, which accepts every value
+     */
+    static final ValueConstraint NONE = new ValueConstraint(null, null, null, null);
+
+    private final String variableName;
+    private final Range range;
+    private final double decimalMin;
+    private final double decimalMax;
+    private final Length length;
+    private final Pattern pattern;
+    private final ValueConstraint elementConstraint;
+
+    private ValueConstraint(String variableName, Range range, Length length, Pattern pattern) {
+        this.variableName = variableName;
+        this.range = range;
+        // Bounds of a floating point value are the narrower of both kinds
+        this.decimalMin = range == null ? Double.NEGATIVE_INFINITY : Math.max(range.min(), range.decimalMin());
+        this.decimalMax = range == null ? Double.POSITIVE_INFINITY : Math.min(range.max(), range.decimalMax());
+        this.length = length;
+        this.pattern = pattern;
+        this.elementConstraint = length == null ? this : new ValueConstraint(variableName, range, null, pattern);
+    }
+
+    /**
+     *
+     * @return The constraint to check every element of an array against, i.e. this one without {@link Length}, which limits the number of
+     * elements instead of length of each
+     */
+    ValueConstraint forElements() {
+        return elementConstraint;
+    }
+
+    /**
+     *
+     * @param field The field in data class
+     * @return The constraint declared on the field, or {@link #NONE} if there is none
+     * @throws IllegalArgumentException If a declared constraint does not apply to the type of the field
+     */
+    static ValueConstraint forField(Field field) {
+        Range range = field.getAnnotation(Range.class);
+        Length length = field.getAnnotation(Length.class);
+        Matches matches = field.getAnnotation(Matches.class);
+        if (range == null && length == null && matches == null) {
+            return NONE;
+        }
+
+        Class<?> fieldType = field.getType();
+        Class<?> elementType = DataClassValidator.getElementType(field);
+        if (range != null && !NUMERIC_TYPES.contains(elementType)) {
+            throw getNotApplicableException(field, Range.class);
+        }
+        if (range != null && (range.decimalMin() != Double.NEGATIVE_INFINITY || range.decimalMax() != Double.POSITIVE_INFINITY)
+                && !FLOATING_POINT_TYPES.contains(elementType)) {
+            throw new IllegalArgumentException("@" + Range.class.getSimpleName() + " with decimal bounds cannot be applied to field "
+                    + field.getName() + " of type " + field.getType().getCanonicalName());
+        }
+        if (length != null && !fieldType.isArray() && !DataClassValidator.isCollection(fieldType) && fieldType != String.class) {
+            throw getNotApplicableException(field, Length.class);
+        }
+        if (matches != null && elementType != String.class) {
+            throw getNotApplicableException(field, Matches.class);
+        }
+
+        return new ValueConstraint(field.getName(), range, length, matches == null ? null : Pattern.compile(matches.value()));
+    }
+
+    private static IllegalArgumentException getNotApplicableException(Field field, Class<?> annotationType) {
+        return new IllegalArgumentException("@" + annotationType.getSimpleName() + " cannot be applied to field " + field.getName()
+                + " of type " + field.getType().getCanonicalName());
+    }
+
+    void checkRange(long value) {
+        if (range != null && (value < range.min() || value > range.max())) {
+            throw getRangeException(String.valueOf(value));
+        }
+    }
+
+    /*
+    Every comparison with NaN is false, so it is rejected explicitly
+    */
+    void checkRange(double value) {
+        if (range != null && (Double.isNaN(value) || value < decimalMin || value > decimalMax)) {
+            throw new IllegalArgumentException("Value (" + value + ") of " + variableName + " is not within [" + decimalMin + ", "
+                    + decimalMax + "]");
+        }
+    }
+
+    private IllegalArgumentException getRangeException(String value) {
+        return new IllegalArgumentException("Value (" + value + ") of " + variableName + " is not within [" + range.min() + ", "
+                + range.max() + "]");
+    }
+
+    /**
+     *
+     * @param value A {@code String} value or element of {@code String} array
+     */
+    void checkText(String value) {
+        if (pattern != null && !pattern.matcher(value).matches()) {
+            throw new IllegalArgumentException("Value (" + value + ") of " + variableName + " does not match (" + pattern.pattern() + ")");
+        }
+    }
+
+    /**
+     *
+     * @param valueLength Length of {@code String} value or number of elements in array or collection
+     */
+    void checkLength(int valueLength) {
+        if (length != null && (valueLength < length.min() || valueLength > length.max())) {
+            throw new IllegalArgumentException("Length (" + valueLength + ") of " + variableName + " is not within [" + length.min() + ", "
+                    + length.max() + "]");
+        }
+    }
+
+    /*
+    Constraints are compared by their bounds and pattern, not by the field, so that values cached for a field are shared by every parser and
+    every field checked the same way. Annotations compare by their values already
+    */
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 59 * hash + (range != null ? range.hashCode() : 0);
+        hash = 59 * hash + (length != null ? length.hashCode() : 0);
+        hash = 59 * hash + (pattern != null ? pattern.pattern().hashCode() : 0);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        final ValueConstraint other = (ValueConstraint) obj;
+
+        return (range == null ? other.range == null : range.equals(other.range))
+                && (length == null ? other.length == null : length.equals(other.length))
+                && (pattern == null ? other.pattern == null : other.pattern != null && pattern.pattern().equals(other.pattern.pattern())
+                && pattern.flags() == other.pattern.flags());
+    }
+}
@@ -0,0 +1,84 @@
+package com.easy.argparse;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * This immutable class invokes a setter method or default constructor of data class through a {@link MethodHandle} adapted to erased
+ * types, so that it is invoked exactly without boxing an argument array or checking access again. It is the Java 11 version of the class in
+ * the multi-release JAR, and behaves like the reflective one: a target or value of the wrong type fails with
+ * {@link IllegalArgumentException} before the member is invoked, an exception thrown by the member is wrapped in
+ * {@link InvocationTargetException}, and an {@link Error} is thrown as it is
+ *
+ * @author himanshu_shekhar
+ */
+final class MemberInvoker {
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+    private final MethodHandle methodHandle;
+    private final Class<?> declaringClass;
+    private final Class<?> parameterType;
+    private final boolean primitiveParameter;
+
+    private MemberInvoker(MethodHandle methodHandle, Class<?> declaringClass, Class<?> parameterType) {
+        this.methodHandle = methodHandle;
+        this.declaringClass = declaringClass;
+        this.parameterType = parameterType == null ? null : MethodType.methodType(parameterType).wrap().returnType();
+        this.primitiveParameter = parameterType != null && parameterType.isPrimitive();
+    }
+
+    static MemberInvoker forSetterMethod(Method setterMethod) {
+        try {
+            MethodHandle methodHandle = MethodHandles.lookup().unreflect(setterMethod).asType(SETTER_TYPE);
+            return new MemberInvoker(methodHandle, setterMethod.getDeclaringClass(), setterMethod.getParameterTypes()[0]);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot access method " + setterMethod + " (" + e.getMessage() + ")", e);
+        }
+    }
+
+    static MemberInvoker forConstructor(Constructor<?> defaultConstructor) {
+        try {
+            MethodHandle methodHandle = MethodHandles.lookup().unreflectConstructor(defaultConstructor).asType(CONSTRUCTOR_TYPE);
+            return new MemberInvoker(methodHandle, defaultConstructor.getDeclaringClass(), null);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot access constructor " + defaultConstructor + " (" + e.getMessage() + ")", e);
+        }
+    }
+
+    static String getImplementation() {
+        return "method handle";
+    }
+
+    void invokeSetter(Object target, Object value) throws IllegalAccessException, InvocationTargetException {
+        // Checked here, so that whatever the handle throws comes from the setter itself
+        if (!declaringClass.isInstance(target)) {
+            throw new IllegalArgumentException("Object is not an instance of " + declaringClass.getName());
+        }
+        if (value == null ? primitiveParameter : !parameterType.isInstance(value)) {
+            throw new IllegalArgumentException("Argument type mismatch, " + parameterType.getName() + " expected ("
+                    + (value == null ? null : value.getClass().getName()) + ")");
+        }
+        try {
+            methodHandle.invokeExact(target, value);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    Object newInstance() throws IllegalAccessException, InvocationTargetException, InstantiationException {
+        try {
+            return (Object) methodHandle.invokeExact();
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.easy.argparse;
+
+import static org.junit.Assert.*;
+import java.lang.management.ManagementFactory;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+/*
+Guards the number of bytes allocated by one parse once the parser is warmed up. The budgets leave about 12% headroom over the allocation
+measured on JDK 17, which varies by a few dozen bytes from run to run, so these fail on a regression like a new copy of an argument. Code
+compiled after profiling other scenarios allocates more, so the tests run in a fixed order
+*/
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class AllocationBudgetTest {
+    private static final int WARM_UP_PARSES = 50000;
+    private static final int MEASURED_PARSES = 2000;
+    private static final int MEASURED_ROUNDS = 10;
+    
+    // Bytes allocated per parse, measured at 1016, 1312 and 1184 to 1224
+    private static final long PRIMITIVES_BUDGET = 1140;
+    private static final long PRIMITIVE_ARRAY_BUDGET = 1470;
+    private static final long STRING_ARRAY_BUDGET = 1370;
+    // Buffer in an instance of ArgumentDataWithBuffer, so that the data object stands out of the few dozen bytes JIT compiler varies by
+    private static final long DATA_OBJECT_BUFFER_SIZE = 4096;
+    
+    private com.sun.management.ThreadMXBean threadMXBean;
+    
+    @Before
+    public void setUpAllocationCounter(){
+        Object mxBean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(mxBean instanceof com.sun.management.ThreadMXBean);
+        threadMXBean = (com.sun.management.ThreadMXBean) mxBean;
+        Assume.assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+    }
+    
+    @Test
+    public void parsesPrimitivesWithinBudget(){
+        ArgumentParser tester = new ArgumentParser("-i intVal [-s shortVal -l longVal] -c charVal -f floatVal", ArgumentDataPrimitivesOnly.class);
+        assertWithinBudget("primitives only", tester, "-i 189 -l 9877 -c T -f 89.23".split(" "), PRIMITIVES_BUDGET);
+    }
+    
+    @Test
+    public void parsesPrimitiveArrayWithinBudget(){
+        ArgumentParser tester = new ArgumentParser("--nums intVals -s stringVal", ArgumentDataWithPrimitiveArray.class);
+        assertWithinBudget("primitive array", tester, "--nums 10,89,2,7,56 -s some_text".split(" "), PRIMITIVE_ARRAY_BUDGET);
+    }
+    
+    @Test
+    public void parsesStringArrayWithinBudget(){
+        ArgumentParser tester = new ArgumentParser("-s stringVals [-l longVal]", ArgumentDataWithStringArray.class);
+        assertWithinBudget("string array", tester, "-s first,second,third -l 42".split(" "), STRING_ARRAY_BUDGET);
+    }
+    
+    @Test
+    public void savesDataObjectWhenParsingIntoPooledInstance(){
+        final ArgumentParser tester = new ArgumentParser("-i intVal [-s stringVal]", ArgumentDataWithBuffer.class);
+        // Every option is available, as resetting an option to its default value allocates the arguments of the setter
+        final String[] args = "-i 189 -s some_text".split(" ");
+        long bytesPerPooledParse = measure(new Runnable() {
+            public void run() {
+                tester.parsePooled(args);
+            }
+        });
+        long bytesPerParse = measure(new Runnable() {
+            public void run() {
+                tester.parse(args);
+            }
+        });
+        assertTrue("Parse into pooled instance allocated " + bytesPerPooledParse + " bytes, parse into new instance " + bytesPerParse
+                + " bytes, the data object is expected to be saved", bytesPerPooledParse < bytesPerParse - DATA_OBJECT_BUFFER_SIZE / 2);
+    }
+    
+    private void assertWithinBudget(String scenario, final ArgumentParser tester, final String[] args, long budget){
+        long bytesPerParse = measure(new Runnable() {
+            public void run() {
+                tester.parse(args);
+            }
+        });
+        assertTrue("Parse of " + scenario + " allocated " + bytesPerParse + " bytes, budget is " + budget, bytesPerParse <= budget);
+    }
+    
+    /*
+    Least of a few rounds, as a round might be measured while JIT compiler is still replacing the code which allocates
+    */
+    private long measure(Runnable parse){
+        for(int count = 0; count < WARM_UP_PARSES; count++){
+            parse.run();
+        }
+        long threadId = Thread.currentThread().getId();
+        long bytesPerParse = Long.MAX_VALUE;
+        for(int round = 0; round < MEASURED_ROUNDS; round++){
+            long before = threadMXBean.getThreadAllocatedBytes(threadId);
+            for(int count = 0; count < MEASURED_PARSES; count++){
+                parse.run();
+            }
+            long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+            bytesPerParse = Math.min(bytesPerParse, allocated / MEASURED_PARSES);
+        }
+        return bytesPerParse;
+    }
+}
@@ -0,0 +1,14 @@
+package com.easy.argparse;
+
+@Immutable
+public class ArgumentDataImmutable {
+    private String name;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,27 @@
+package com.easy.argparse;
+
+public class ArgumentDataWithBuffer {
+    private int intVal;
+    private String stringVal;
+    private final byte[] buffer = new byte[4096];
+
+    public int getIntVal() {
+        return intVal;
+    }
+
+    public void setIntVal(int intVal) {
+        this.intVal = intVal;
+    }
+
+    public String getStringVal() {
+        return stringVal;
+    }
+
+    public void setStringVal(String stringVal) {
+        this.stringVal = stringVal;
+    }
+
+    public byte[] getBuffer() {
+        return buffer;
+    }
+}
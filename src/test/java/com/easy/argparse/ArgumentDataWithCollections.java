@@ -0,0 +1,44 @@
+package com.easy.argparse;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+public class ArgumentDataWithCollections {
+    private EnumSet<Priority> priorities = EnumSet.of(Priority.MEDIUM);
+    private List<Integer> ids;
+    private Set<Long> sizes;
+    private Priority[] priorityOrder = {Priority.LOW};
+
+    public EnumSet<Priority> getPriorities() {
+        return priorities;
+    }
+
+    public void setPriorities(EnumSet<Priority> priorities) {
+        this.priorities = priorities;
+    }
+
+    public List<Integer> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Integer> ids) {
+        this.ids = ids;
+    }
+
+    public Set<Long> getSizes() {
+        return sizes;
+    }
+
+    public void setSizes(Set<Long> sizes) {
+        this.sizes = sizes;
+    }
+
+    public Priority[] getPriorityOrder() {
+        return priorityOrder;
+    }
+
+    public void setPriorityOrder(Priority[] priorityOrder) {
+        this.priorityOrder = priorityOrder;
+    }
+}
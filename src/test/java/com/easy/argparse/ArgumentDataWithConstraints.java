@@ -0,0 +1,57 @@
+package com.easy.argparse;
+
+public class ArgumentDataWithConstraints {
+    @Range(min = 1, max = 65535)
+    private int port;
+    @Length(min = 1, max = 8)
+    @Matches("[a-z]+")
+    private String name;
+    @Length(max = 3)
+    @Range(min = 0, max = 100)
+    private int[] percentages;
+    @Length(max = 3)
+    @Matches("[a-z]+")
+    private String[] names;
+    @Range(decimalMin = 0, decimalMax = 0.5)
+    private double ratio;
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int[] getPercentages() {
+        return percentages;
+    }
+
+    public void setPercentages(int[] percentages) {
+        this.percentages = percentages;
+    }
+
+    public String[] getNames() {
+        return names;
+    }
+
+    public void setNames(String[] names) {
+        this.names = names;
+    }
+
+    public double getRatio() {
+        return ratio;
+    }
+
+    public void setRatio(double ratio) {
+        this.ratio = ratio;
+    }
+}
@@ -0,0 +1,10 @@
+package com.easy.argparse;
+
+public interface ArgumentDataWithConstraintsView {
+
+    int getPort();
+
+    String name();
+
+    int[] getPercentages();
+}
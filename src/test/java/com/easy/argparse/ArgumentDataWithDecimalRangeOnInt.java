@@ -0,0 +1,14 @@
+package com.easy.argparse;
+
+public class ArgumentDataWithDecimalRangeOnInt {
+    @Range(decimalMax = 0.5)
+    private int intVal;
+
+    public int getIntVal() {
+        return intVal;
+    }
+
+    public void setIntVal(int intVal) {
+        this.intVal = intVal;
+    }
+}
@@ -0,0 +1,33 @@
+package com.easy.argparse;
+
+public class ArgumentDataWithFallback {
+    @Fallback(environment = "ARGPARSE_TEST_MINUTE", property = "argparse.test.minute")
+    private int minute;
+    @Fallback(property = "argparse.test.verbose", key = "app.verbose")
+    private boolean verbose;
+    private String name;
+
+    public int getMinute() {
+        return minute;
+    }
+
+    public void setMinute(int minute) {
+        this.minute = minute;
+    }
+
+    public boolean isVerbose() {
+        return verbose;
+    }
+
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
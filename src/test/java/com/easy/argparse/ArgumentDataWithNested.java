@@ -0,0 +1,31 @@
+package com.easy.argparse;
+
+public class ArgumentDataWithNested {
+    private boolean verbose;
+    private ArgumentDataWithString db;
+    private ArgumentDataWithNested child;
+
+    public boolean isVerbose() {
+        return verbose;
+    }
+
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    public ArgumentDataWithString getDb() {
+        return db;
+    }
+
+    public void setDb(ArgumentDataWithString db) {
+        this.db = db;
+    }
+
+    public ArgumentDataWithNested getChild() {
+        return child;
+    }
+
+    public void setChild(ArgumentDataWithNested child) {
+        this.child = child;
+    }
+}
@@ -0,0 +1,42 @@
+package com.easy.argparse;
+
+import java.util.List;
+
+public class ArgumentDataWithOperands {
+    private boolean verbose;
+    private int intVal;
+    private List<String> files;
+    private List<Integer> counts;
+
+    public boolean isVerbose() {
+        return verbose;
+    }
+
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    public int getIntVal() {
+        return intVal;
+    }
+
+    public void setIntVal(int intVal) {
+        this.intVal = intVal;
+    }
+
+    public List<String> getFiles() {
+        return files;
+    }
+
+    public void setFiles(List<String> files) {
+        this.files = files;
+    }
+
+    public List<Integer> getCounts() {
+        return counts;
+    }
+
+    public void setCounts(List<Integer> counts) {
+        this.counts = counts;
+    }
+}
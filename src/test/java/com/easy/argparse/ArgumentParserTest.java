@@ -1,6 +1,18 @@
 package com.easy.argparse;
 
 import static org.junit.Assert.*;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
 import org.junit.Test;
 
 public class ArgumentParserTest {
@@ -151,4 +163,754 @@ public class ArgumentParserTest {
         ArgumentDataWithPrimitiveArray data = (ArgumentDataWithPrimitiveArray) tester.parse(("-n " + valueString).split(" "));
         assertArrayEquals("Cannot parse integer array with special characters as delimiter", new int[]{10, 89, 35}, data.getIntVals());
     }
+    
+    @Test
+    public void parsesLargeArrayInParallel(){
+        String usage = "-n intVals";
+        String delimiter = "<?>";
+        int[] expected = new int[200000];
+        StringBuilder valueString = new StringBuilder();
+        for(int index = 0; index < expected.length; index++){
+            expected[index] = index * 7;
+            valueString.append(expected[index]).append(delimiter);
+        }
+        ArgumentParser tester = new ArgumentParser(usage, ArgumentDataWithPrimitiveArray.class, delimiter);
+        tester.setParallelArrayThreshold(1);
+        ArgumentDataWithPrimitiveArray data = (ArgumentDataWithPrimitiveArray) tester.parse(new String[]{"-n", valueString.toString()});
+        assertArrayEquals("Cannot parse large integer array in parallel", expected, data.getIntVals());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalArgumentIsThrownIfIncorrectDataTypeInParallelArray(){
+        String usage = "-n intVals";
+        ArgumentParser tester = new ArgumentParser(usage, ArgumentDataWithPrimitiveArray.class);
+        tester.setParallelArrayThreshold(1);
+        tester.parse(new String[]{"-n", "10,89,2.5,7"});
+    }
+    
+    @Test
+    public void decodesSameElementsInParallelAsSerially(){
+        ArgumentParser tester = new ArgumentParser("-s stringVals", ArgumentDataWithStringArray.class);
+        FieldValueManager fieldValueManager = new FieldValueManager(ArgumentDataWithStringArray.class, 
+                new UsageTokenManager("-s stringVals", ArgumentDataWithStringArray.class), ",");
+        ParallelArrayDecoder decoder = new ParallelArrayDecoder(fieldValueManager);
+        String[] values = {"", ",", ",,", "a", "a,,", ",a", "a,b"};
+        for (String value : values) {
+            String[] expected = ((ArgumentDataWithStringArray) tester.parse(new String[]{"-s", value})).getStringVals();
+            assertArrayEquals("Parallel decoding differs from serial for (" + value + ")", expected, 
+                    (String[]) decoder.decode(value, ",", String.class, ValueConstraint.NONE));
+        }
+    }
+    
+    @Test
+    public void reusesCachedValues(){
+        String usage = "-n intVals -s stringVal";
+        ArgumentParser tester = new ArgumentParser(usage, ArgumentDataWithPrimitiveArray.class);
+        ConvertedValueCache cache = new ConvertedValueCache(10);
+        cache.addCachedType(int[].class);
+        tester.setValueCache(cache);
+        
+        ArgumentDataWithPrimitiveArray data = (ArgumentDataWithPrimitiveArray) tester.parse("-n 10,89,2 -s some_text".split(" "));
+        data.getIntVals()[0] = 55;
+        data = (ArgumentDataWithPrimitiveArray) tester.parse("-n 10,89,2 -s other_text".split(" "));
+        assertArrayEquals("Cannot parse integer array from cache", new int[]{10, 89, 2}, data.getIntVals());
+        assertEquals("String value is not expected to be cached", "other_text", data.getStringVal());
+        assertEquals("Incorrect number of cache hits", 1, cache.getHitCount());
+        assertEquals("Incorrect number of cache misses", 1, cache.getMissCount());
+    }
+    
+    @Test
+    public void evictsLeastRecentlyUsedCachedValue(){
+        ConvertedValueCache cache = new ConvertedValueCache(2);
+        cache.put(Integer.class, ",", "1", 1);
+        cache.put(Integer.class, ",", "2", 2);
+        cache.get(Integer.class, ",", "1");
+        cache.put(Integer.class, ",", "3", 3);
+        assertEquals("Recently used value is not expected to be evicted", 1, cache.get(Integer.class, ",", "1"));
+        assertNull("Least recently used value is expected to be evicted", cache.get(Integer.class, ",", "2"));
+        assertEquals("Incorrect number of evictions", 1, cache.getEvictionCount());
+    }
+    
+    @Test
+    public void parsesOperandsAfterOptions(){
+        String usage = "-i intVal [-v verbose] files...";
+        ArgumentParser tester = new ArgumentParser(usage, ArgumentDataWithOperands.class);
+        ArgumentDataWithOperands data = (ArgumentDataWithOperands) tester.parse("-v -i 10 a.txt b.txt c.txt".split(" "));
+        assertEquals("Cannot parse option when operands are present", 10, data.getIntVal());
+        assertTrue("Cannot parse boolean option when operands are present", data.isVerbose());
+        assertEquals("Cannot parse operands", Arrays.asList("a.txt", "b.txt", "c.txt"), data.getFiles());
+    }
+    
+    @Test
+    public void parsesOperandsAfterEndOfOptions(){
+        String usage = "-i intVal [files...]";
+        ArgumentParser tester = new ArgumentParser(usage, ArgumentDataWithOperands.class);
+        ArgumentDataWithOperands data = (ArgumentDataWithOperands) tester.parse("-i 10 -- -v a.txt".split(" "));
+        assertEquals("Cannot parse operands after end of options", Arrays.asList("-v", "a.txt"), data.getFiles());
+        
+        data = (ArgumentDataWithOperands) tester.parse("-i 10".split(" "));
+        assertNull("Optional operands are not expected if not available", data.getFiles());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalArgumentIsThrownIfMissingMandatoryOperands(){
+        String usage = "-i intVal files...";
+        ArgumentParser tester = new ArgumentParser(usage, ArgumentDataWithOperands.class);
+        tester.parse("-i 10 --".split(" "));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalArgumentIsThrownIfOperandIsNotLast(){
+        String usage = "files... -i intVal";
+        ArgumentParser tester = new ArgumentParser(usage, ArgumentDataWithOperands.class);
+        tester.parse("-i 10 a.txt".split(" "));
+    }
+    
+    @Test
+    public void checksOperandPositionByTokens(){
+        ArgumentParser tester = new ArgumentParser("-i intVal [-v verbose files...] []", ArgumentDataWithOperands.class);
+        ArgumentDataWithOperands data = (ArgumentDataWithOperands) tester.parse("-i 10 a.txt".split(" "));
+        assertEquals("Cannot parse operand which is the last token", Arrays.asList("a.txt"), data.getFiles());
+        
+        String[] invalidUsages = {"[files...] -i intVal", "-i intVal [files... -v verbose]"};
+        for (String usage : invalidUsages) {
+            try{
+                new ArgumentParser(usage, ArgumentDataWithOperands.class).parse("-i 10 a.txt".split(" "));
+                fail("Operand which is not the last token is not expected to be accepted: " + usage);
+            }catch(IllegalArgumentException e){
+            }
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalArgumentIsThrownIfOperandElementTypeIsNotString(){
+        String usage = "-i intVal counts...";
+        ArgumentParser tester = new ArgumentParser(usage, ArgumentDataWithOperands.class);
+        tester.parse("-i 10 1 2".split(" "));
+    }
+    
+    @Test
+    public void parsesOptionWithAttachedValue(){
+        String usage = "[-a|--all all -v|--verbose verbose] -n|--count count [--name name]";
+        ArgumentParser tester = new ArgumentParser(usage, ArgumentDataWithFlags.class);
+        ArgumentDataWithFlags data = (ArgumentDataWithFlags) tester.parse("--count=12 --name=a=b".split(" "));
+        assertEquals("Cannot parse long option with attached value", 12, data.getCount());
+        assertEquals("Cannot parse long option with attached value containing separator", "a=b", data.getName());
+        
+        data = (ArgumentDataWithFlags) tester.parse("-n-5".split(" "));
+        assertEquals("Cannot parse short option with attached negative value", -5, data.getCount());
+    }
+    
+    @Test
+    public void parsesClusterOfBooleanOptions(){
+        String usage = "[-a|--all all -v|--verbose verbose] -n|--count count";
+        ArgumentParser tester = new ArgumentParser(usage, ArgumentDataWithFlags.class);
+        ArgumentDataWithFlags data = (ArgumentDataWithFlags) tester.parse("-va -n 3".split(" "));
+        assertTrue("Cannot parse first option in cluster", data.isVerbose());
+        assertTrue("Cannot parse second option in cluster", data.isAll());
+    }
+    
+    @Test
+    public void parsesNegativeNumberAsValue(){
+        String usage = "-n count";
+        ArgumentParser tester = new ArgumentParser(usage, ArgumentDataWithFlags.class);
+        ArgumentDataWithFlags data = (ArgumentDataWithFlags) tester.parse("-n -42".split(" "));
+        assertEquals("Cannot parse negative number as value", -42, data.getCount());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalArgumentIsThrownIfClusterContainsOptionNeedingValue(){
+        String usage = "[-a all -v verbose] -n count";
+        ArgumentParser tester = new ArgumentParser(usage, ArgumentDataWithFlags.class);
+        tester.parse("-avn 3".split(" "));
+    }
+    
+    @Test
+    public void parsesAsPerReloadedUsageExpression(){
+        ReloadableArgumentParser tester = new ReloadableArgumentParser("-i intVal [-s stringVal]", ArgumentDataWithString.class);
+        ArgumentDataWithString data = (ArgumentDataWithString) tester.parse("-i 10".split(" "));
+        assertEquals("Cannot parse as per initial usage expression", 10, data.getIntVal());
+        
+        tester.reload("[--num intVal] --str stringVal");
+        data = (ArgumentDataWithString) tester.parse("--str text --num 11".split(" "));
+        assertEquals("Cannot parse as per reloaded usage expression", 11, data.getIntVal());
+        assertEquals("Cannot parse as per reloaded usage expression", "text", data.getStringVal());
+    }
+    
+    @Test
+    public void keepsUsageExpressionIfReloadedOneIsInvalid(){
+        ReloadableArgumentParser tester = new ReloadableArgumentParser("-i intVal", ArgumentDataWithString.class);
+        try{
+            tester.reload("-i integerVal");
+            fail("Invalid usage expression is not expected to be reloaded");
+        }catch(IllegalArgumentException e){
+            ArgumentDataWithString data = (ArgumentDataWithString) tester.parse("-i 10".split(" "));
+            assertEquals("Cannot parse as per previous usage expression", 10, data.getIntVal());
+        }
+    }
+    
+    @Test
+    public void reusesCachedParser(){
+        ArgumentParserCache cache = new ArgumentParserCache(1);
+        ArgumentParser tester = cache.get("-i intVal", ArgumentDataWithString.class, ",");
+        assertSame("Compiled parser is expected to be reused", tester, cache.get("-i intVal", ArgumentDataWithString.class, ","));
+        ArgumentDataWithString data = (ArgumentDataWithString) tester.parse("-i 10".split(" "));
+        assertEquals("Cannot parse with cached parser", 10, data.getIntVal());
+        
+        assertNotSame("Parser for other delimiter is not expected to be reused", tester, cache.get("-i intVal", ArgumentDataWithString.class, ":"));
+        assertEquals("Incorrect number of cache hits", 1, cache.getHitCount());
+        assertEquals("Incorrect number of cache misses", 2, cache.getMissCount());
+        assertEquals("Incorrect number of evictions", 1, cache.getEvictionCount());
+    }
+    
+    @Test
+    public void dropsCachedParserOfUnreachableDataClass() throws Exception{
+        ArgumentParserCache cache = new ArgumentParserCache(16);
+        cacheParserOfIsolatedDataClass(cache);
+        int attempts = 0;
+        do{
+            System.gc();
+            Thread.sleep(10);
+            cache.get("-i intVal", ArgumentDataWithString.class, ",");
+        }while(cache.size() > 1 && ++attempts < 50);
+        assertEquals("Parser of unreachable data class is expected to be dropped", 1, cache.size());
+    }
+    
+    @Test
+    public void keepsCachedParserOfReachableDataClassAcrossCollections() throws Exception{
+        ArgumentParserCache cache = new ArgumentParserCache(16);
+        Class<?> isolatedDataClass = new IsolatingClassLoader(ArgumentDataWithString.class).loadClass(ArgumentDataWithString.class.getName());
+        cache.get("-i intVal", isolatedDataClass, ",").parse("-i 10".split(" "));
+        for(int count = 0; count < 3; count++){
+            System.gc();
+            Thread.sleep(10);
+        }
+        cache.get("-i intVal", isolatedDataClass, ",").parse("-i 11".split(" "));
+        assertEquals("Parser of reachable data class is expected to be kept", 1, cache.getHitCount());
+        assertEquals("Parser of reachable data class is expected to be compiled once", 1, cache.getMissCount());
+    }
+    
+    private static void cacheParserOfIsolatedDataClass(ArgumentParserCache cache) throws Exception{
+        Class<?> isolatedDataClass = new IsolatingClassLoader(ArgumentDataWithString.class).loadClass(ArgumentDataWithString.class.getName());
+        assertNotSame("Data class is expected to be loaded again", ArgumentDataWithString.class, isolatedDataClass);
+        cache.get("-i intVal", isolatedDataClass, ",").parse("-i 10".split(" "));
+        assertEquals("Cannot cache parser of isolated data class", 1, cache.size());
+    }
+    
+    /*
+    Defines its own copy of given class, like the class loader of a plugin would
+    */
+    private static class IsolatingClassLoader extends ClassLoader{
+        private final Class<?> isolatedClass;
+        
+        IsolatingClassLoader(Class<?> isolatedClass){
+            super(isolatedClass.getClassLoader());
+            this.isolatedClass = isolatedClass;
+        }
+        
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException{
+            if(!name.equals(isolatedClass.getName())){
+                return super.loadClass(name, resolve);
+            }
+            synchronized(this){
+                Class<?> loadedClass = findLoadedClass(name);
+                if(loadedClass != null){
+                    return loadedClass;
+                }
+                try{
+                    InputStream input = getParent().getResourceAsStream(name.replace('.', '/') + ".class");
+                    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                    try{
+                        byte[] buffer = new byte[4096];
+                        int count;
+                        while((count = input.read(buffer)) != -1){
+                            bytes.write(buffer, 0, count);
+                        }
+                    }finally{
+                        input.close();
+                    }
+                    return defineClass(name, bytes.toByteArray(), 0, bytes.size());
+                }catch(IOException e){
+                    throw new ClassNotFoundException(name, e);
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void parsesValuesWithinConstraints(){
+        ArgumentParser tester = new ArgumentParser("-p port [-n name] [-c percentages]", ArgumentDataWithConstraints.class);
+        ArgumentDataWithConstraints data = (ArgumentDataWithConstraints) tester.parse("-p 8080 -n server -c 10,20,30".split(" "));
+        assertEquals("Cannot parse value within range", 8080, data.getPort());
+        assertEquals("Cannot parse value matching pattern", "server", data.getName());
+        assertArrayEquals("Cannot parse array within length and range", new int[]{10, 20, 30}, data.getPercentages());
+    }
+    
+    @Test
+    public void rejectsValuesViolatingConstraints(){
+        ArgumentParser tester = new ArgumentParser("-p port [-n name] [-c percentages]", ArgumentDataWithConstraints.class);
+        String[] invalidArgs = {"-p 0", "-p 8080 -n Server", "-p 8080 -n administrator", "-p 8080 -c 10,200", "-p 8080 -c 1,2,3,4"};
+        for (String args : invalidArgs) {
+            try{
+                tester.parse(args.split(" "));
+                fail("Value violating constraint is not expected to be parsed: " + args);
+            }catch(IllegalArgumentException e){
+            }
+        }
+    }
+    
+    @Test
+    public void checksLengthOfStringArrayByElementCount(){
+        ArgumentParser tester = new ArgumentParser("-p port [-m names]", ArgumentDataWithConstraints.class);
+        ArgumentDataWithConstraints data = (ArgumentDataWithConstraints) tester.parse("-p 8080 -m alice,bob".split(" "));
+        assertArrayEquals("Length is expected to limit number of elements, not their length", new String[]{"alice", "bob"}, data.getNames());
+        
+        String[] invalidArgs = {"-p 8080 -m a,b,c,d", "-p 8080 -m alice,Bob"};
+        for (String args : invalidArgs) {
+            try{
+                tester.parse(args.split(" "));
+                fail("Value violating constraint is not expected to be parsed: " + args);
+            }catch(IllegalArgumentException e){
+            }
+        }
+    }
+    
+    @Test
+    public void checksFractionalRangeAndRejectsNaN(){
+        ArgumentParser tester = new ArgumentParser("-p port [-r ratio]", ArgumentDataWithConstraints.class);
+        ArgumentDataWithConstraints data = (ArgumentDataWithConstraints) tester.parse("-p 8080 -r 0.5".split(" "));
+        assertEquals("Cannot parse value within fractional range", 0.5, data.getRatio(), 0);
+        
+        String[] invalidArgs = {"-p 8080 -r 0.51", "-p 8080 -r -0.1", "-p 8080 -r NaN"};
+        for (String args : invalidArgs) {
+            try{
+                tester.parse(args.split(" "));
+                fail("Value violating constraint is not expected to be parsed: " + args);
+            }catch(IllegalArgumentException e){
+            }
+        }
+    }
+    
+    @Test
+    public void rejectsDecimalRangeOnIntegralField(){
+        try{
+            new ArgumentParser("-i intVal", ArgumentDataWithDecimalRangeOnInt.class).parse("-i 0".split(" "));
+            fail("Decimal bounds are not expected to be accepted on an integral field");
+        }catch(IllegalArgumentException e){
+        }
+    }
+    
+    @Test
+    public void checksConstraintsOfCachedValues(){
+        ArgumentParser tester = new ArgumentParser("-p port", ArgumentDataWithConstraints.class);
+        ConvertedValueCache cache = new ConvertedValueCache(16);
+        ArgumentParser unconstrained = new ArgumentParser("-i intVal", ArgumentDataWithString.class);
+        unconstrained.setValueCache(cache);
+        tester.setValueCache(cache);
+        
+        assertEquals("Cannot parse unconstrained value", 0, ((ArgumentDataWithString) unconstrained.parse("-i 0".split(" "))).getIntVal());
+        try{
+            tester.parse("-p 0".split(" "));
+            fail("Cached value violating constraint is not expected to be parsed");
+        }catch(IllegalArgumentException e){
+        }
+    }
+    
+    @Test
+    public void sharesCachedValuesOfEqualConstraints(){
+        ConvertedValueCache cache = new ConvertedValueCache(16);
+        ArgumentParser tester = new ArgumentParser("-p port", ArgumentDataWithConstraints.class);
+        ArgumentParser otherTester = new ArgumentParser("-p port", ArgumentDataWithConstraints.class);
+        tester.setValueCache(cache);
+        otherTester.setValueCache(cache);
+        
+        tester.parse("-p 8080".split(" "));
+        assertEquals("Cannot parse cached value", 8080, ((ArgumentDataWithConstraints) otherTester.parse("-p 8080".split(" "))).getPort());
+        assertEquals("Value is expected to be shared by parsers with equal constraints", 1, cache.getHitCount());
+    }
+    
+    @Test
+    public void parsesEnumSetInArgument(){
+        ArgumentParser tester = new ArgumentParser("-p priorities [-o priorityOrder]", ArgumentDataWithCollections.class);
+        ArgumentDataWithCollections data = (ArgumentDataWithCollections) tester.parse("-p HIGH,LOW -o HIGH,LOW,HIGH".split(" "));
+        assertEquals("Cannot parse enum set in arguments", EnumSet.of(Priority.LOW, Priority.HIGH), data.getPriorities());
+        assertArrayEquals("Cannot parse enum array in arguments", new Priority[]{Priority.HIGH, Priority.LOW, Priority.HIGH}, 
+                data.getPriorityOrder());
+        try{
+            tester.parse("-p HIGH,URGENT".split(" "));
+            fail("Unknown enum constant is not expected to be parsed");
+        }catch(IllegalArgumentException e){
+        }
+    }
+    
+    @Test
+    public void parsesPrimitiveCollectionsInArgument(){
+        ArgumentParser tester = new ArgumentParser("-i ids -s sizes", ArgumentDataWithCollections.class);
+        ArgumentDataWithCollections data = (ArgumentDataWithCollections) tester.parse("-i 3,1,3 -s 20,10,20".split(" "));
+        assertEquals("Cannot parse list of integers in arguments", Arrays.asList(3, 1, 3), data.getIds());
+        assertEquals("Cannot parse list of integers without boxing", 1, ((IntList) data.getIds()).getInt(1));
+        assertEquals("Cannot parse set of longs in arguments", new HashSet<Long>(Arrays.asList(10L, 20L)), data.getSizes());
+        assertTrue("Cannot parse set of longs without boxing", ((LongSet) data.getSizes()).containsLong(20L));
+    }
+    
+    @Test
+    public void parsesEnumIgnoringCaseAndByPrefix(){
+        ArgumentParser tester = new ArgumentParser("-n name -p priority", ArgumentDataWithEnum.class);
+        ArgumentDataWithEnum data = (ArgumentDataWithEnum) tester.parse(new String[]{"-n", "Test", "-p", "medium"});
+        assertEquals("Cannot parse enum ignoring case", Priority.MEDIUM, data.getPriority());
+        data = (ArgumentDataWithEnum) tester.parse(new String[]{"-n", "Test", "-p", "Hi"});
+        assertEquals("Cannot parse enum by unique prefix", Priority.HIGH, data.getPriority());
+    }
+    
+    @Test
+    public void reportsCandidatesForUnresolvedEnum(){
+        ArgumentParser tester = new ArgumentParser("-n name -p priority", ArgumentDataWithEnum.class);
+        try{
+            tester.parse(new String[]{"-n", "Test", "-p", "URGENT"});
+            fail("Unknown enum constant is not expected to be parsed");
+        }catch(IllegalArgumentException e){
+            assertTrue("Candidates are expected in the message: " + e.getMessage(), e.getMessage().contains("[LOW, MEDIUM, HIGH]"));
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalArgumentIsThrownForEmptyEnumConstant(){
+        new EnumResolver(SingleConstant.class).resolve("");
+    }
+    
+    private enum SingleConstant{
+        ONLY
+    }
+    
+    @Test
+    public void suggestsOptionsForMistypedOption(){
+        ArgumentParser tester = new ArgumentParser("-i|--integer intVal [-s|--string stringVal]", ArgumentDataWithString.class);
+        try{
+            tester.parse("--intger 10".split(" "));
+            fail("Mistyped option is not expected to be parsed");
+        }catch(IllegalArgumentException e){
+            assertTrue("Closest option is expected in the message: " + e.getMessage(), e.getMessage().endsWith("did you mean [integer]?"));
+        }
+        try{
+            tester.parse("--unknown 10".split(" "));
+            fail("Unknown option is not expected to be parsed");
+        }catch(IllegalArgumentException e){
+            assertFalse("No option is expected in the message: " + e.getMessage(), e.getMessage().contains("did you mean"));
+        }
+    }
+    
+    @Test
+    public void updatesOnlyChangedValuesInPlace(){
+        ArgumentParser argumentParser = new ArgumentParser("-i intVal [-s stringVal]", ArgumentDataWithString.class);
+        IncrementalArgumentParser tester = new IncrementalArgumentParser(argumentParser, IncrementalArgumentParser.UpdateMode.IN_PLACE);
+        assertEquals("Incorrect variables changed by first update", new HashSet<String>(Arrays.asList("intVal", "stringVal")), 
+                tester.update("-i 10 -s text".split(" ")));
+        ArgumentDataWithString data = (ArgumentDataWithString) tester.getData();
+        
+        assertEquals("Incorrect variables changed by update", Collections.singleton("intVal"), tester.update("-s text -i 11".split(" ")));
+        assertSame("Data is expected to be updated in place", data, tester.getData());
+        assertEquals("Cannot update changed value", 11, data.getIntVal());
+        
+        assertTrue("No variable is expected to change", tester.update("-i 11 -s text".split(" ")).isEmpty());
+        assertEquals("Incorrect variables changed by removing option", Collections.singleton("stringVal"), tester.update("-i 11".split(" ")));
+        assertNull("Removed option is expected to be reset to default value", data.getStringVal());
+    }
+    
+    @Test
+    public void updatesCopyOfChangedData(){
+        ArgumentParser argumentParser = new ArgumentParser("-i intVal [-s stringVal]", ArgumentDataWithString.class);
+        IncrementalArgumentParser tester = new IncrementalArgumentParser(argumentParser, IncrementalArgumentParser.UpdateMode.COPY_ON_WRITE);
+        tester.update("-i 10 -s text".split(" "));
+        ArgumentDataWithString previous = (ArgumentDataWithString) tester.getData();
+        
+        tester.update("-i 11 -s text".split(" "));
+        ArgumentDataWithString data = (ArgumentDataWithString) tester.getData();
+        assertNotSame("Changed data is expected to be a copy", previous, data);
+        assertEquals("Previous data is not expected to change", 10, previous.getIntVal());
+        assertEquals("Cannot update changed value", 11, data.getIntVal());
+        assertEquals("Cannot keep unchanged value", "text", data.getStringVal());
+    }
+    
+    @Test
+    public void copiesUnchangedMutableValuesOnWrite(){
+        ArgumentParser argumentParser = new ArgumentParser("--nums intVals -s stringVal", ArgumentDataWithPrimitiveArray.class);
+        IncrementalArgumentParser tester = new IncrementalArgumentParser(argumentParser, IncrementalArgumentParser.UpdateMode.COPY_ON_WRITE);
+        tester.update("--nums 1,2 -s first".split(" "));
+        ArgumentDataWithPrimitiveArray previous = (ArgumentDataWithPrimitiveArray) tester.getData();
+        
+        tester.update("--nums 1,2 -s second".split(" "));
+        ArgumentDataWithPrimitiveArray data = (ArgumentDataWithPrimitiveArray) tester.getData();
+        assertArrayEquals("Cannot keep unchanged array", new int[]{1, 2}, data.getIntVals());
+        assertNotSame("Unchanged array is not expected to be shared with previous data", previous.getIntVals(), data.getIntVals());
+    }
+    
+    @Test
+    public void parsesIntoGivenInstance(){
+        ArgumentParser tester = new ArgumentParser("-i intVal [-s stringVal]", ArgumentDataWithString.class);
+        ArgumentDataWithString target = new ArgumentDataWithString();
+        assertSame("Cannot parse into given instance", target, tester.parseInto("-i 10 -s text".split(" "), target));
+        assertEquals("Cannot parse into given instance", "text", target.getStringVal());
+        
+        tester.parseInto("-i 11".split(" "), target);
+        assertEquals("Cannot parse into given instance", 11, target.getIntVal());
+        assertNull("Option not available is expected to be reset to default value", target.getStringVal());
+    }
+    
+    @Test
+    public void parsesIntoGivenInstanceWithoutCreatingNestedObjects(){
+        String usage = "--db.port db.intVal [--db.name db.stringVal --child.verbose child.verbose]";
+        ArgumentParser tester = new ArgumentParser(usage, ArgumentDataWithNested.class);
+        ArgumentDataWithNested target = new ArgumentDataWithNested();
+        tester.parseInto("--db.port 5432 --db.name users".split(" "), target);
+        assertNull("Nested object of option not available is not expected to be created", target.getChild());
+        
+        tester.parseInto("--db.port 6543".split(" "), target);
+        assertEquals("Cannot parse into nested object of given instance", 6543, target.getDb().getIntVal());
+        assertNull("Nested option not available is expected to be reset to default value", target.getDb().getStringVal());
+        assertNull("Nested object of option not available is not expected to be created", target.getChild());
+    }
+    
+    @Test
+    public void resetsToCopiesOfMutableDefaultValues(){
+        ArgumentParser tester = new ArgumentParser("[-p priorities -o priorityOrder]", ArgumentDataWithCollections.class);
+        ArgumentDataWithCollections first = (ArgumentDataWithCollections) tester.parseInto(new String[0], new ArgumentDataWithCollections());
+        first.getPriorityOrder()[0] = Priority.HIGH;
+        first.getPriorities().add(Priority.HIGH);
+        
+        ArgumentDataWithCollections second = (ArgumentDataWithCollections) tester.parseInto(new String[0], new ArgumentDataWithCollections());
+        assertArrayEquals("Default array is not expected to be shared", new Priority[]{Priority.LOW}, second.getPriorityOrder());
+        assertEquals("Default EnumSet is not expected to be shared", EnumSet.of(Priority.MEDIUM), second.getPriorities());
+    }
+    
+    @Test
+    public void reusesPooledInstanceInSameThread(){
+        ArgumentParser tester = new ArgumentParser("-i intVal [-s stringVal]", ArgumentDataWithString.class);
+        Object data = tester.parsePooled("-i 10".split(" "));
+        assertSame("Pooled instance is expected to be reused", data, tester.parsePooled("-i 11".split(" ")));
+        assertEquals("Cannot parse into pooled instance", 11, ((ArgumentDataWithString) data).getIntVal());
+    }
+    
+    @Test
+    public void parsesIntoNestedObjects(){
+        String usage = "--db.port db.intVal [--db.name db.stringVal --child.verbose child.verbose --child.db.port child.db.intVal]";
+        ArgumentParser tester = new ArgumentParser(usage, ArgumentDataWithNested.class);
+        ArgumentDataWithNested data = (ArgumentDataWithNested) tester.parse("--db.port 5432 --db.name users --child.db.port=6543".split(" "));
+        assertEquals("Cannot parse variable of nested object", 5432, data.getDb().getIntVal());
+        assertEquals("Cannot parse variable of nested object", "users", data.getDb().getStringVal());
+        assertEquals("Cannot parse variable of nested object at second level", 6543, data.getChild().getDb().getIntVal());
+        assertFalse("Nested option not available is not expected to be set", data.getChild().isVerbose());
+    }
+    
+    @Test
+    public void passesThroughUnrecognizedArguments(){
+        ArgumentParser tester = new ArgumentParser("-i intVal [-s stringVal]", ArgumentDataWithString.class);
+        String[] args = "-Xmx1g -i 10 --verbose Main.class -s text -- -i 20".split(" ");
+        ParseResult result = tester.parsePassingThrough(args);
+        assertEquals("Cannot parse recognized options when passing through", 10, ((ArgumentDataWithString) result.getData()).getIntVal());
+        assertEquals("Cannot parse recognized options when passing through", "text", ((ArgumentDataWithString) result.getData()).getStringVal());
+        assertEquals("Cannot pass through unrecognized arguments", Arrays.asList("-Xmx1g", "--verbose", "Main.class", "--", "-i", "20"), 
+                result.getUnrecognizedArguments());
+    }
+    
+    @Test
+    public void takesOperandsBeforePassingThrough(){
+        ArgumentParser tester = new ArgumentParser("[-v verbose] files...", ArgumentDataWithOperands.class);
+        ParseResult result = tester.parsePassingThrough("-q -v a.txt b.txt".split(" "));
+        assertEquals("Cannot take operands when passing through", Arrays.asList("a.txt", "b.txt"), 
+                ((ArgumentDataWithOperands) result.getData()).getFiles());
+        assertEquals("Cannot pass through unknown option", Arrays.asList("-q"), result.getUnrecognizedArguments());
+    }
+    
+    @Test
+    public void takesFallbackValuesFromSnapshot(){
+        ArgumentParser tester = new ArgumentParser("-m minute [-v verbose -n name]", ArgumentDataWithFallback.class);
+        EnvironmentSnapshot snapshot = new EnvironmentSnapshot();
+        tester.setEnvironmentSnapshot(snapshot);
+        try{
+            System.setProperty("argparse.test.minute", "20");
+            System.setProperty("argparse.test.verbose", "false");
+            assertEquals("Fallback value is not expected before refreshing snapshot", null, snapshot.getProperty("argparse.test.minute"));
+            snapshot.refresh();
+            
+            ArgumentDataWithFallback data = (ArgumentDataWithFallback) tester.parse("-n test".split(" "));
+            assertEquals("Cannot take mandatory option from fallback", 20, data.getMinute());
+            assertFalse("Cannot take boolean option from fallback", data.isVerbose());
+            
+            data = (ArgumentDataWithFallback) tester.parse("-m 30 -v".split(" "));
+            assertEquals("Option in arguments is expected to override fallback", 30, data.getMinute());
+            assertTrue("Option in arguments is expected to override fallback", data.isVerbose());
+        }finally{
+            System.clearProperty("argparse.test.minute");
+            System.clearProperty("argparse.test.verbose");
+        }
+    }
+    
+    @Test
+    public void takesValuesFromConfigFile() throws IOException{
+        File file = File.createTempFile("argparse", ".properties");
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try{
+            writer.write("# shared defaults\nother.tool.minute=99\nminute = 5\nname=from file\r\napp.verbose: true\nname=from l\u00e4st line\n");
+        }finally{
+            writer.close();
+        }
+        ArgumentParser tester = new ArgumentParser("-m minute [-v verbose -n name]", ArgumentDataWithFallback.class);
+        tester.setEnvironmentSnapshot(new EnvironmentSnapshot());
+        try{
+            ConfigFileSource configFile = new ConfigFileSource(file);
+            assertEquals("Cannot index config file", 5, configFile.size());
+            assertEquals("Key is not expected in config file", null, configFile.getValue("seconds"));
+            tester.setConfigFile(configFile);
+            
+            ArgumentDataWithFallback data = (ArgumentDataWithFallback) tester.parse(new String[0]);
+            assertEquals("Cannot take mandatory option from config file", 5, data.getMinute());
+            assertEquals("Cannot take the last value of a key from config file", "from l\u00e4st line", data.getName());
+            assertTrue("Cannot take value by fallback key from config file", data.isVerbose());
+            
+            data = (ArgumentDataWithFallback) tester.parse("-m 30".split(" "));
+            assertEquals("Option in arguments is expected to override config file", 30, data.getMinute());
+            
+            EnvironmentSnapshot snapshot = new EnvironmentSnapshot();
+            tester.setEnvironmentSnapshot(snapshot);
+            System.setProperty("argparse.test.minute", "20");
+            snapshot.refresh();
+            data = (ArgumentDataWithFallback) tester.parse(new String[0]);
+            assertEquals("Fallback value is expected to override config file", 20, data.getMinute());
+        }finally{
+            System.clearProperty("argparse.test.minute");
+            file.delete();
+        }
+    }
+    
+    @Test
+    public void convertsLazyViewValuesOnFirstAccess(){
+        ArgumentParser tester = new ArgumentParser("-p port [-n name] [-c percentages]", ArgumentDataWithConstraints.class, ",");
+        ArgumentDataWithConstraintsView view = tester.parseLazily("-p 8080 -c 10,200".split(" "), ArgumentDataWithConstraintsView.class);
+        assertEquals("Cannot get value from lazy view", 8080, view.getPort());
+        assertEquals("Cannot get default value from lazy view", null, view.name());
+        try{
+            view.getPercentages();
+            fail("Value violating its constraint is expected to fail when first read");
+        }catch(IllegalArgumentException e){
+            assertTrue("Message is expected to name the variable", e.getMessage().contains("percentages"));
+        }
+        
+        view = tester.parseLazily("-p 1 -c 10,20".split(" "), ArgumentDataWithConstraintsView.class);
+        assertSame("Converted value is expected to be kept", view.getPercentages(), view.getPercentages());
+        assertArrayEquals("Cannot get array from lazy view", new int[]{10, 20}, view.getPercentages());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void lazyViewMethodMustMatchVariable(){
+        ArgumentParser tester = new ArgumentParser("-p port", ArgumentDataWithConstraints.class);
+        tester.parseLazily("-p 1".split(" "), ArgumentDataWithConstraintsView.class);
+    }
+    
+    @Test
+    public void extractsProjectedValuesOnly(){
+        ArgumentParser tester = new ArgumentParser("-p port [-n name] [-c percentages]", ArgumentDataWithConstraints.class, ",");
+        ArgumentProjection projection = tester.projection("name", "port");
+        assertEquals("Cannot keep order of projected variables", Arrays.asList("name", "port"), projection.getDataVariableNames());
+        
+        String[] values = projection.extract("-c 500,x --unknown -n test -p 99999 -n later".split(" "));
+        assertArrayEquals("Cannot extract projected values without checking others", new String[]{"later", "99999"}, values);
+        assertArrayEquals("Missing option is expected to be null", new String[]{null, "1"}, projection.extract("-p1".split(" ")));
+    }
+    
+    @Test
+    public void extractsLastValueOfRepeatedOptionAsParseDoes(){
+        ArgumentParser tester = new ArgumentParser("-i intVal [-s stringVal]", ArgumentDataWithString.class);
+        String[] args = "-s a -i 1 -s b".split(" ");
+        ArgumentDataWithString data = (ArgumentDataWithString) tester.parse(args);
+        assertArrayEquals("Projection is expected to keep the same value as parse", new String[]{data.getStringVal()},
+                tester.projection("stringVal").extract(args));
+        assertEquals("Cannot keep last value of repeated option", "b", data.getStringVal());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void projectionRequiresKnownVariable(){
+        new ArgumentParser("-p port", ArgumentDataWithConstraints.class).projection("region");
+    }
+    
+    @Test
+    public void readsEncodedBinaryRecord(){
+        ArgumentParser tester = new ArgumentParser("-p port [-n name] [-c percentages]", ArgumentDataWithConstraints.class, ",");
+        BinaryRecordLayout layout = new BinaryRecordLayout(tester);
+        ByteBuffer record = layout.encode(tester.parse("-p 8080 -c 10,20,30".split(" ")));
+        
+        BinaryRecordReader reader = layout.newReader().wrap(record);
+        assertEquals("Cannot read int from binary record", 8080, reader.getInt("port"));
+        assertFalse("Null value is not expected to be present", reader.isPresent("name"));
+        assertEquals("Cannot read absent String from binary record", null, reader.getString("name"));
+        assertEquals("Cannot read array length from binary record", 3, reader.getLength("percentages"));
+        assertEquals("Cannot read array element from binary record", 30, reader.getInt("percentages", 2));
+        
+        reader.wrap(layout.encode(tester.parse("-p 1 -n test".split(" "))));
+        assertEquals("Cannot read String from binary record", "test", reader.getString("name"));
+        assertEquals("Absent array is expected to have no length", -1, reader.getLength("percentages"));
+    }
+    
+    @Test
+    public void readsEncodedCollectionsAndEnums(){
+        ArgumentParser tester = new ArgumentParser("-p priorities [-o priorityOrder -i ids -s sizes]", ArgumentDataWithCollections.class);
+        BinaryRecordLayout layout = new BinaryRecordLayout(tester);
+        BinaryRecordReader reader = layout.newReader().wrap(layout.encode(tester.parse("-p low -o HIGH,low -i 4,5 -s 7".split(" "))));
+        assertEquals("Cannot read enum array element from binary record", "LOW", reader.getString("priorityOrder", 1));
+        assertEquals("Cannot read EnumSet from binary record", "LOW", reader.getString("priorities", 0));
+        assertEquals("Cannot read List element from binary record", 5, reader.getInt("ids", 1));
+        assertEquals("Cannot read Set element from binary record", 7L, reader.getLong("sizes", 0));
+        try{
+            reader.getInt("sizes", 0);
+            fail("Getter of other type is expected to fail");
+        }catch(IllegalArgumentException e){
+            assertTrue("Message is expected to name the variable", e.getMessage().contains("sizes"));
+        }
+        
+        BinaryRecordLayout otherLayout = new BinaryRecordLayout(new ArgumentParser("-i ids", ArgumentDataWithCollections.class));
+        try{
+            otherLayout.newReader().wrap(layout.encode(tester.parse("-p low".split(" "))));
+            fail("Record of other layout is expected to fail");
+        }catch(IllegalArgumentException e){
+            assertEquals("Binary record was not encoded by this layout", e.getMessage());
+        }
+        
+        ByteBuffer truncatedRecord = layout.encode(tester.parse("-p low".split(" ")));
+        truncatedRecord.limit(BinaryRecordLayout.BITMAP_OFFSET + 1);
+        try{
+            layout.newReader().wrap(truncatedRecord);
+            fail("Truncated record is expected to fail");
+        }catch(IllegalArgumentException e){
+            assertTrue("Message is expected to tell the record is short", e.getMessage().contains("shorter"));
+        }
+    }
+    
+    @Test
+    public void returnsCopyOfCachedResult(){
+        ArgumentParser tester = new ArgumentParser("-i intVals -s stringVal", ArgumentDataWithPrimitiveArray.class, ",");
+        ParsedResultCache resultCache = new ParsedResultCache(1);
+        tester.setResultCache(resultCache);
+        String[] args = "-i 1,2 -s test".split(" ");
+        
+        ArgumentDataWithPrimitiveArray data = (ArgumentDataWithPrimitiveArray) tester.parse(args);
+        data.getIntVals()[0] = 5;
+        args[1] = "3,4";
+        ArgumentDataWithPrimitiveArray cachedData = (ArgumentDataWithPrimitiveArray) tester.parse("-i 1,2 -s test".split(" "));
+        assertEquals("Cannot find parsed result in cache", 1, resultCache.getHitCount());
+        assertNotSame("Mutable data class is expected to be copied", data, cachedData);
+        assertArrayEquals("Cached result is not expected to change with returned copy", new int[]{1, 2}, cachedData.getIntVals());
+        assertEquals("Cannot copy cached result", "test", cachedData.getStringVal());
+        
+        tester.parse(args);
+        assertEquals("Least recently used result is expected to be evicted", 1, resultCache.getEvictionCount());
+    }
+    
+    @Test
+    public void returnsSharedCachedResultOfImmutableDataClass(){
+        ArgumentParser tester = new ArgumentParser("-n name", ArgumentDataImmutable.class);
+        tester.setResultCache(new ParsedResultCache(16));
+        Object data = tester.parse("-n test".split(" "));
+        assertSame("Immutable data class is expected to be shared", data, tester.parse("-n test".split(" ")));
+        assertNotSame("Other arguments are not expected to share result", data, tester.parse("-n other".split(" ")));
+    }
 }
@@ -0,0 +1,64 @@
+package com.easy.argparse;
+
+/**
+ * Compares {@link ArgumentScanner} with the loop it replaced, which looked up options using {@code startsWith} and a regex {@code replaceAll}.
+ * It is not a unit test, run the main method with test classpath, e.g.
+ * {@code mvn test-compile exec:java -Dexec.mainClass=com.easy.argparse.ArgumentScannerBenchmark -Dexec.classpathScope=test}
+ */
+public class ArgumentScannerBenchmark {
+    private static final int WARM_UP_ROUNDS = 20;
+    private static final int ROUNDS = 50;
+    private static final int ITERATIONS = 100000;
+    
+    private static int sink;
+    
+    public static void main(String[] args) {
+        String usage = "[-a|--all all -v|--verbose verbose] -n|--count count [--name name]";
+        UsageTokenManager usageTokenManager = new UsageTokenManager(usage, ArgumentDataWithFlags.class);
+        usageTokenManager.initialize();
+        FieldValueManager fieldValueManager = new FieldValueManager(ArgumentDataWithFlags.class, usageTokenManager, ",");
+        String[] arguments = "--all -v --count 10 --name some_name".split(" ");
+        
+        for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+            runRegexLoop(usageTokenManager, arguments);
+            runScanner(usageTokenManager, fieldValueManager, arguments);
+        }
+        
+        long regexLoopNanos = 0;
+        long scannerNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            regexLoopNanos += runRegexLoop(usageTokenManager, arguments);
+            scannerNanos += runScanner(usageTokenManager, fieldValueManager, arguments);
+        }
+        
+        double perArgument = (double) ROUNDS * ITERATIONS * arguments.length;
+        System.out.printf("startsWith + replaceAll loop: %.1f ns/argument%n", regexLoopNanos / perArgument);
+        System.out.printf("ArgumentScanner: %.1f ns/argument%n", scannerNanos / perArgument);
+        System.out.println(sink);
+    }
+    
+    private static long runRegexLoop(UsageTokenManager usageTokenManager, String[] arguments) {
+        long start = System.nanoTime();
+        for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+            for (String option : arguments) {
+                if (option.startsWith("-")) {
+                    sink += usageTokenManager.findUsageToken(option.replaceAll("[-]{1,2}", "")).hashCode();
+                }
+            }
+        }
+        return System.nanoTime() - start;
+    }
+    
+    private static long runScanner(UsageTokenManager usageTokenManager, FieldValueManager fieldValueManager, String[] arguments) {
+        ArgumentScanner argumentScanner = new ArgumentScanner(usageTokenManager, fieldValueManager, false);
+        long start = System.nanoTime();
+        for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+            for (String argument : arguments) {
+                if (argumentScanner.scan(argument) == ArgumentScanner.Kind.OPTION) {
+                    sink += argumentScanner.getUsageToken().hashCode();
+                }
+            }
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,56 @@
+package com.easy.argparse;
+
+import java.util.List;
+
+/**
+ * Measures creating instances of data class and binding the values, the paths which the multi-release JAR replaces on Java 11 and later.
+ * It is not a unit test, run the main method with test classpath once as built by default and once as built by profile
+ * {@code multi-release} with the versioned classes first, e.g.
+ * {@code mvn test-compile exec:java -Dexec.mainClass=com.easy.argparse.BindingBenchmark -Dexec.classpathScope=test} and
+ * {@code java -cp target/classes/META-INF/versions/11:target/classes:target/test-classes:<dependencies> com.easy.argparse.BindingBenchmark}
+ */
+public class BindingBenchmark {
+    private static final int WARM_UP_ROUNDS = 20;
+    private static final int ROUNDS = 50;
+    private static final int ITERATIONS = 100000;
+    
+    private static int sink;
+    
+    public static void main(String[] args) {
+        ArgumentParser argumentParser = new ArgumentParser("-i intVal -l longVal -b boolVal -d doubleVal", ArgumentDataPrimitivesOnly.class);
+        argumentParser.compile();
+        AvailableValues availableValues = argumentParser.getAvailableValues("-i 10 -l 20 -b -d 0.5".split(" "));
+        List<UsageToken> usageTokenList = argumentParser.getUsageTokens();
+        UsageToken[] usageTokens = usageTokenList.toArray(new UsageToken[usageTokenList.size()]);
+        Object[] values = new Object[usageTokens.length];
+        for (int index = 0; index < values.length; index++) {
+            values[index] = argumentParser.getArgValueObject(usageTokens[index], availableValues);
+        }
+        
+        for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+            runBinding(argumentParser, usageTokens, values);
+        }
+        
+        long bindingNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            bindingNanos += runBinding(argumentParser, usageTokens, values);
+        }
+        
+        double perInstance = (double) ROUNDS * ITERATIONS;
+        System.out.printf("Create and bind %d values using %s: %.1f ns/instance%n", values.length, MemberInvoker.getImplementation(),
+                bindingNanos / perInstance);
+        System.out.println(sink);
+    }
+    
+    private static long runBinding(ArgumentParser argumentParser, UsageToken[] usageTokens, Object[] values) {
+        long start = System.nanoTime();
+        for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+            Object dataHolderObject = argumentParser.getDataClassInstance();
+            for (int index = 0; index < values.length; index++) {
+                argumentParser.invokeSetterMethod(usageTokens[index], dataHolderObject, values[index]);
+            }
+            sink += dataHolderObject.hashCode();
+        }
+        return System.nanoTime() - start;
+    }
+}
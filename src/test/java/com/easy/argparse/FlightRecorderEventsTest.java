@@ -0,0 +1,89 @@
+package com.easy.argparse;
+
+import static org.junit.Assert.*;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.lang.reflect.Method;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Test;
+
+/*
+Flight Recorder is used reflectively, same as the library does, so that the tests compile for any target
+*/
+public class FlightRecorderEventsTest {
+    
+    @After
+    public void disableEvents(){
+        FlightRecorderEvents.disable();
+    }
+    
+    @Test
+    public void emitsNoEventsByDefault(){
+        assertFalse("Events are not expected to be enabled by default", FlightRecorderEvents.isEnabled());
+        assertNull("No event is expected while disabled", FlightRecorderEvents.beginParse());
+    }
+    
+    @Test
+    public void recordsCompileParseAndConversionFailureEvents() throws Exception{
+        Assume.assumeTrue(FlightRecorderEvents.enable());
+        
+        Class<?> recordingClass = Class.forName("jdk.jfr.Recording");
+        Object recording = recordingClass.newInstance();
+        recordingClass.getMethod("enable", String.class).invoke(recording, "com.easy.argparse.*");
+        recordingClass.getMethod("start").invoke(recording);
+        
+        ArgumentParser tester = new ArgumentParser("-i intVal [-s stringVal]", ArgumentDataWithString.class);
+        tester.parse("-i 10".split(" "));
+        try{
+            tester.parse("-i ten".split(" "));
+            fail("Invalid integer is not expected to be parsed");
+        }catch(IllegalArgumentException e){
+        }
+        tester.parse(Channels.newChannel(new ByteArrayInputStream("-i\u000020\u0000-s\u0000text\u0000".getBytes(Charset.forName("UTF-8")))));
+        
+        recordingClass.getMethod("stop").invoke(recording);
+        File recordingFile = File.createTempFile("argparse", ".jfr");
+        recordingFile.deleteOnExit();
+        recordingClass.getMethod("dump", Class.forName("java.nio.file.Path")).invoke(recording, File.class.getMethod("toPath").invoke(recordingFile));
+        recordingClass.getMethod("close").invoke(recording);
+        
+        List<?> events = readEvents(recordingFile);
+        List<String> eventNames = new ArrayList<String>();
+        List<String> parseOutcomes = new ArrayList<String>();
+        for(Object event : events){
+            String eventName = getEventName(event);
+            eventNames.add(eventName);
+            if(eventName.equals("com.easy.argparse.Parse")){
+                parseOutcomes.add(getEventValue(event, "argumentCount") + " " + getEventValue(event, "outcome"));
+            }
+        }
+        assertTrue("Compile event is expected: " + eventNames, eventNames.contains("com.easy.argparse.Compile"));
+        assertTrue("Conversion failure event is expected: " + eventNames, eventNames.contains("com.easy.argparse.ConversionFailure"));
+        assertEquals("Parse events are expected in order", 3, parseOutcomes.size());
+        assertEquals("2 SUCCESS", parseOutcomes.get(0));
+        assertTrue("Failed parse is expected to record the error: " + parseOutcomes.get(1),
+                parseOutcomes.get(1).startsWith("2 ") && parseOutcomes.get(1).contains("ten"));
+        assertEquals("Parse from channel is expected to record arguments read", "4 SUCCESS", parseOutcomes.get(2));
+    }
+    
+    private List<?> readEvents(File recordingFile) throws Exception{
+        Class<?> recordingFileClass = Class.forName("jdk.jfr.consumer.RecordingFile");
+        return (List<?>) recordingFileClass.getMethod("readAllEvents", Class.forName("java.nio.file.Path"))
+                .invoke(null, File.class.getMethod("toPath").invoke(recordingFile));
+    }
+    
+    private String getEventName(Object event) throws Exception{
+        Object eventType = event.getClass().getMethod("getEventType").invoke(event);
+        Method getName = eventType.getClass().getMethod("getName");
+        return (String) getName.invoke(eventType);
+    }
+    
+    private Object getEventValue(Object event, String field) throws Exception{
+        return event.getClass().getMethod("getValue", String.class).invoke(event, field);
+    }
+}
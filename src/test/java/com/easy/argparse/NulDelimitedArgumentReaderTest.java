@@ -0,0 +1,52 @@
+package com.easy.argparse;
+
+import static org.junit.Assert.*;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class NulDelimitedArgumentReaderTest {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    
+    private static ReadableByteChannel getChannel(String text){
+        return Channels.newChannel(new ByteArrayInputStream(text.getBytes(UTF_8)));
+    }
+    
+    private static List<String> readAll(NulDelimitedArgumentReader tester) throws IOException{
+        List<String> arguments = new ArrayList<String>();
+        String argument;
+        while((argument = tester.next()) != null){
+            arguments.add(argument);
+        }
+        return arguments;
+    }
+    
+    @Test
+    public void readsArgumentsCrossingBufferBoundary() throws IOException{
+        NulDelimitedArgumentReader tester = new NulDelimitedArgumentReader(getChannel("-n\0some_long_value\0été\0x"), UTF_8, 4);
+        assertEquals("Cannot read arguments crossing buffer boundary", Arrays.asList("-n", "some_long_value", "été", "x"), readAll(tester));
+        assertEquals("Incorrect index of last argument", 3, tester.getIndex());
+    }
+    
+    @Test
+    public void readsEmptyArguments() throws IOException{
+        NulDelimitedArgumentReader tester = new NulDelimitedArgumentReader(getChannel("a\0\0b\0"), UTF_8);
+        assertEquals("Cannot read empty arguments", Arrays.asList("a", "", "b"), readAll(tester));
+    }
+    
+    @Test
+    public void parsesArgumentsFromChannel() throws IOException{
+        String usage = "-i intVal [-v verbose] files...";
+        ArgumentParser tester = new ArgumentParser(usage, ArgumentDataWithOperands.class);
+        ArgumentDataWithOperands data = (ArgumentDataWithOperands) tester.parse(getChannel("-i\0" + "42\0-v\0a file.txt\0b.txt\0"), UTF_8);
+        assertEquals("Cannot parse option from channel", 42, data.getIntVal());
+        assertTrue("Cannot parse boolean option from channel", data.isVerbose());
+        assertEquals("Cannot parse operands from channel", Arrays.asList("a file.txt", "b.txt"), data.getFiles());
+    }
+}
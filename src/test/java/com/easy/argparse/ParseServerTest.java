@@ -0,0 +1,165 @@
+package com.easy.argparse;
+
+import static org.junit.Assert.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParseServerTest {
+    private File socketFile;
+    private ParseServer server;
+
+    @Before
+    public void startServer() throws Exception {
+        Assume.assumeTrue(UnixDomainSockets.isSupported());
+        socketFile = File.createTempFile("argparse", ".sock");
+        socketFile.delete();
+        server = new ParseServer(socketFile);
+        server.register("primitives", new ArgumentParser("-i intVal [-l longVal]", ArgumentDataPrimitivesOnly.class));
+        server.register("array", new ArgumentParser("-i intVals", ArgumentDataWithPrimitiveArray.class, ","));
+        server.start();
+    }
+
+    @After
+    public void closeServer() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    public void parsesForConcurrentClients() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Void>> results = new ArrayList<Future<Void>>();
+            for (int clientIndex = 0; clientIndex < 8; clientIndex++) {
+                final int intVal = clientIndex;
+                results.add(executor.submit(new Callable<Void>() {
+                    public Void call() throws Exception {
+                        ParseClient parseClient = new ParseClient(socketFile);
+                        try {
+                            for (int index = 0; index < 50; index++) {
+                                Map<String, List<String>> values = parseClient.parse("primitives", new String[]{"-i", String.valueOf(intVal),
+                                    "-l", String.valueOf(index)});
+                                assertEquals("Cannot parse through server", Arrays.asList(String.valueOf(intVal)), values.get("intVal"));
+                                assertEquals("Cannot parse through server", Arrays.asList(String.valueOf(index)), values.get("longVal"));
+                            }
+                        } finally {
+                            parseClient.close();
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void returnsArrayElementsAndErrors() throws Exception {
+        ParseClient parseClient = new ParseClient(socketFile);
+        try {
+            assertEquals("Cannot parse array through server", Arrays.asList("1", "2", "3"),
+                    parseClient.parse("array", "-i 1,2,3".split(" ")).get("intVals"));
+            try {
+                parseClient.parse("primitives", new String[]{"-l", "5"});
+                fail("Missing mandatory option is expected to fail");
+            } catch (IllegalArgumentException e) {
+                assertEquals("Missing mandatory option from the arguments", e.getMessage());
+            }
+            try {
+                parseClient.parse("unknown", new String[0]);
+                fail("Unknown parser is expected to fail");
+            } catch (IllegalArgumentException e) {
+                assertTrue("Message is expected to name the parser", e.getMessage().contains("unknown"));
+            }
+        } finally {
+            parseClient.close();
+        }
+    }
+
+    @Test
+    public void answersMalformedRequestAndKeepsConnection() throws Exception {
+        SocketChannel channel = UnixDomainSockets.connect(socketFile);
+        try {
+            // Name of parser without number of arguments
+            ParseFrames.writeFrame(channel, new ParseFrames.FrameWriter().putString("primitives"));
+            ByteBuffer response = ParseFrames.readFrame(channel);
+            assertNotNull("Malformed request is expected to be answered", response);
+            assertEquals("Malformed request is expected to fail", ParseFrames.STATUS_FAILED, response.get());
+            assertTrue("Message is expected to tell the request is malformed", ParseFrames.getString(response).startsWith("Malformed request"));
+
+            ParseFrames.writeFrame(channel, new ParseFrames.FrameWriter().putString("primitives").putInt(2).putString("-i").putString("7"));
+            response = ParseFrames.readFrame(channel);
+            assertEquals("Request after malformed request is expected to be parsed", ParseFrames.STATUS_PARSED, response.get());
+        } finally {
+            channel.close();
+        }
+    }
+
+    @Test
+    public void answersResponseBeyondMaximumFrameLengthWithFailure() throws Exception {
+        // Each element takes 2 bytes in the request and 5 bytes in the response
+        StringBuilder intVals = new StringBuilder();
+        for (int index = 0; index < ParseFrames.MAXIMUM_FRAME_LENGTH / 4; index++) {
+            intVals.append("1,");
+        }
+        ParseClient parseClient = new ParseClient(socketFile);
+        try {
+            try {
+                parseClient.parse("array", new String[]{"-i", intVals.toString()});
+                fail("Response beyond maximum frame length is expected to fail");
+            } catch (IllegalArgumentException e) {
+                assertTrue("Message is expected to tell the response is too long", e.getMessage().startsWith("Response length"));
+            }
+            assertEquals("Request after too long response is expected to be parsed", Arrays.asList("1", "2"),
+                    parseClient.parse("array", "-i 1,2".split(" ")).get("intVals"));
+        } finally {
+            parseClient.close();
+        }
+    }
+
+    @Test
+    public void closesConnectionsBeyondLimit() throws Exception {
+        server.close();
+        server = new ParseServer(socketFile, 1);
+        server.register("primitives", new ArgumentParser("-i intVal [-l longVal]", ArgumentDataPrimitivesOnly.class));
+        server.start();
+
+        ParseClient servedClient = new ParseClient(socketFile);
+        ParseClient rejectedClient = null;
+        try {
+            assertEquals("Cannot parse through server", Arrays.asList("1"), servedClient.parse("primitives", "-i 1".split(" ")).get("intVal"));
+            rejectedClient = new ParseClient(socketFile);
+            try {
+                rejectedClient.parse("primitives", "-i 2".split(" "));
+                fail("Connection beyond the limit is expected to be closed");
+            } catch (IOException e) {
+            }
+            assertEquals("Served connection is expected to be kept", Arrays.asList("3"),
+                    servedClient.parse("primitives", "-i 3".split(" ")).get("intVal"));
+        } finally {
+            servedClient.close();
+            if (rejectedClient != null) {
+                rejectedClient.close();
+            }
+        }
+    }
+}